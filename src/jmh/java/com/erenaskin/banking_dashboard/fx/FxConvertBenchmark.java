@@ -0,0 +1,50 @@
+package com.erenaskin.banking_dashboard.fx;
+
+import com.erenaskin.banking_dashboard.entity.Currency;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Snapshot conversion as used by transfers and by the portfolio total on every dashboard view.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FxConvertBenchmark {
+
+    private final FxRateSnapshot rates = FxRateSnapshot.of(Map.of(
+            Currency.USD, BigDecimal.ONE,
+            Currency.EUR, new BigDecimal("0.92"),
+            Currency.TRY, new BigDecimal("32.50")), Instant.now());
+
+    private final BigDecimal amount = new BigDecimal("1234.56");
+    private final BigDecimal[] totals = {new BigDecimal("1500.00"), new BigDecimal("250.10"), new BigDecimal("98000.75")};
+    private final Currency[] currencies = {Currency.USD, Currency.EUR, Currency.TRY};
+
+    @Benchmark
+    public BigDecimal sameCurrency() {
+        return rates.convert(amount, Currency.TRY, Currency.TRY);
+    }
+
+    @Benchmark
+    public BigDecimal crossCurrency() {
+        return rates.convert(amount, Currency.USD, Currency.TRY);
+    }
+
+    @Benchmark
+    public BigDecimal portfolioTotal() {
+        BigDecimal total = BigDecimal.ZERO;
+        for (int i = 0; i < totals.length; i++) {
+            total = total.add(rates.convert(totals[i], currencies[i], Currency.EUR));
+        }
+        return total.setScale(FxRateSnapshot.MONEY_SCALE, RoundingMode.HALF_EVEN);
+    }
+}
@@ -0,0 +1,77 @@
+package com.erenaskin.banking_dashboard.journal;
+
+import com.erenaskin.banking_dashboard.entity.TransactionType;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Journal appends on the local disk. {@code append} measures appends per second without
+ * waiting for the disk; {@code appendDurable} waits for the group fsync, so its sample-time
+ * percentiles are the commit latency a writer sees, at 1 and 8 concurrent writers. Average
+ * and maximum fsync times are printed after each trial.
+ */
+@State(Scope.Benchmark)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TransferJournalBenchmark {
+
+    private Path directory;
+    private TransferJournal journal;
+    private JournalRecord record;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory(Path.of(System.getProperty("jmh.journal.dir", "target")), "journal-bench");
+        journal = new TransferJournal();
+        ReflectionTestUtils.setField(journal, "enabled", true);
+        ReflectionTestUtils.setField(journal, "directory", directory.toString());
+        ReflectionTestUtils.setField(journal, "segmentBytes", 64L * 1024 * 1024);
+        ReflectionTestUtils.setField(journal, "fsync", true);
+        journal.init();
+        record = JournalRecord.of(TransactionType.TRANSFER, "TR330006100000000000000001", "TR060006100000000000000002",
+                new BigDecimal("12.34"), null, LocalDateTime.now(), new BigDecimal("987.66"), new BigDecimal("112.34"));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        System.out.printf("%n%d appends, %d fsyncs, avg fsync %.3f ms, max fsync %.3f ms%n",
+                journal.appendCount(), journal.fsyncCount(), journal.averageFsyncMillis(), journal.maxFsyncMillis());
+        journal.close();
+        FileSystemUtils.deleteRecursively(directory);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    public long append() {
+        return journal.append(record);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SampleTime)
+    @Threads(1)
+    public long appendDurable_1Writer() {
+        long sequence = journal.append(record);
+        journal.awaitDurable(sequence);
+        return sequence;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SampleTime)
+    @Threads(8)
+    public long appendDurable_8Writers() {
+        long sequence = journal.append(record);
+        journal.awaitDurable(sequence);
+        return sequence;
+    }
+}
@@ -0,0 +1,100 @@
+package com.erenaskin.banking_dashboard.ledger;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Balance mutations routed through the per-IBAN writer lanes versus the previous approach of
+ * serializing every mutation behind one lock, at 1, 8 and 64 concurrent clients. Each
+ * mutation burns a fixed amount of CPU to stand in for the work done while holding the account.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AccountWriteExecutorBenchmark {
+
+    private static final int ACCOUNTS = 1024;
+    private static final long WORK_TOKENS = 200;
+
+    private final Object globalLock = new Object();
+    private final long[] balances = new long[ACCOUNTS];
+    private final String[] ibans = new String[ACCOUNTS];
+
+    private AccountWriteExecutor executor;
+
+    @Setup
+    public void setUp() {
+        for (int i = 0; i < ACCOUNTS; i++) {
+            ibans[i] = "TR" + i;
+        }
+        executor = new AccountWriteExecutor();
+        ReflectionTestUtils.setField(executor, "laneCount", 16);
+        ReflectionTestUtils.setField(executor, "queueCapacity", 100_000);
+        ReflectionTestUtils.setField(executor, "timeoutMs", 10_000L);
+        executor.init();
+    }
+
+    @TearDown
+    public void tearDown() {
+        executor.shutdown();
+    }
+
+    private void lanes() {
+        int account = ThreadLocalRandom.current().nextInt(ACCOUNTS);
+        executor.run(ibans[account], () -> {
+            Blackhole.consumeCPU(WORK_TOKENS);
+            balances[account]++;
+        });
+    }
+
+    private void serialized() {
+        int account = ThreadLocalRandom.current().nextInt(ACCOUNTS);
+        synchronized (globalLock) {
+            Blackhole.consumeCPU(WORK_TOKENS);
+            balances[account]++;
+        }
+    }
+
+    @Benchmark
+    @Threads(1)
+    public void lanes_1Client() {
+        lanes();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public void lanes_8Clients() {
+        lanes();
+    }
+
+    @Benchmark
+    @Threads(64)
+    public void lanes_64Clients() {
+        lanes();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public void serialized_1Client() {
+        serialized();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public void serialized_8Clients() {
+        serialized();
+    }
+
+    @Benchmark
+    @Threads(64)
+    public void serialized_64Clients() {
+        serialized();
+    }
+}
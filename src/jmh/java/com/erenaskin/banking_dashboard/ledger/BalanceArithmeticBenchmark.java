@@ -0,0 +1,72 @@
+package com.erenaskin.banking_dashboard.ledger;
+
+import com.erenaskin.banking_dashboard.entity.Account;
+import com.erenaskin.banking_dashboard.entity.Currency;
+import com.erenaskin.banking_dashboard.fx.FxRateSnapshot;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The in-memory part of {@code AccountServiceImpl.createTransaction}: balance checks and
+ * BigDecimal updates for each transaction type, including a cross-currency credit.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BalanceArithmeticBenchmark {
+
+    private final BigDecimal amount = new BigDecimal("12.34");
+    private final FxRateSnapshot rates = FxRateSnapshot.of(Map.of(
+            Currency.USD, BigDecimal.ONE,
+            Currency.EUR, new BigDecimal("0.92"),
+            Currency.TRY, new BigDecimal("32.50")), Instant.now());
+
+    private Account sender;
+    private Account receiver;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        sender = Account.builder().iban("TR1").balance(new BigDecimal("1000000000.00")).currency(Currency.TRY).build();
+        receiver = Account.builder().iban("TR2").balance(new BigDecimal("1000.00")).currency(Currency.EUR).build();
+    }
+
+    @Benchmark
+    public BigDecimal deposit() {
+        sender.setBalance(sender.getBalance().add(amount));
+        return sender.getBalance();
+    }
+
+    // Withdrawals and transfers put the money back before returning, so the balances stay the
+    // same for the whole iteration however many invocations it runs.
+    @Benchmark
+    public BigDecimal withdraw() {
+        if (sender.getBalance().compareTo(amount) < 0) {
+            throw new IllegalArgumentException("Insufficient balance");
+        }
+        sender.setBalance(sender.getBalance().subtract(amount));
+        BigDecimal after = sender.getBalance();
+        sender.setBalance(after.add(amount));
+        return after;
+    }
+
+    @Benchmark
+    public BigDecimal transferCrossCurrency() {
+        if (sender.getBalance().compareTo(amount) < 0) {
+            throw new IllegalArgumentException("Insufficient balance");
+        }
+        BigDecimal credited = rates.convert(amount, sender.getCurrency(), receiver.getCurrency());
+        sender.setBalance(sender.getBalance().subtract(amount));
+        receiver.setBalance(receiver.getBalance().add(credited));
+        BigDecimal after = receiver.getBalance();
+        sender.setBalance(sender.getBalance().add(amount));
+        receiver.setBalance(after.subtract(credited));
+        return after;
+    }
+}
@@ -0,0 +1,70 @@
+package com.erenaskin.banking_dashboard.mapper;
+
+import com.erenaskin.banking_dashboard.dto.AccountResponse;
+import com.erenaskin.banking_dashboard.dto.TransactionResponse;
+import com.erenaskin.banking_dashboard.entity.Account;
+import com.erenaskin.banking_dashboard.entity.Currency;
+import com.erenaskin.banking_dashboard.entity.Transaction;
+import com.erenaskin.banking_dashboard.entity.TransactionType;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * MapStruct entity-to-DTO mapping over lists the size of a details page up to a full export.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MappingBenchmark {
+
+    @Param({"50", "10000", "100000"})
+    public int size;
+
+    private final TransactionMapper transactionMapper = new TransactionMapperImpl();
+    private final AccountMapper accountMapper = new AccountMapperImpl();
+
+    private List<Transaction> transactions;
+    private List<Account> accounts;
+
+    @Setup
+    public void setUp() {
+        transactions = new ArrayList<>(size);
+        accounts = new ArrayList<>(size);
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < size; i++) {
+            transactions.add(Transaction.builder()
+                    .id((long) i)
+                    .type(TransactionType.values()[i % 3])
+                    .senderIban("TR" + i)
+                    .receiverIban("TR" + (i + 1))
+                    .amount(BigDecimal.valueOf(i, 2))
+                    .timestamp(now.minusSeconds(i))
+                    .senderBalanceAfter(BigDecimal.valueOf(10_000L + i, 2))
+                    .build());
+            accounts.add(Account.builder()
+                    .id((long) i)
+                    .iban("TR" + i)
+                    .balance(BigDecimal.valueOf(i, 2))
+                    .currency(Currency.values()[i % Currency.values().length])
+                    .build());
+        }
+    }
+
+    @Benchmark
+    public List<TransactionResponse> transactions() {
+        return transactions.stream().map(transactionMapper::toResponse).toList();
+    }
+
+    @Benchmark
+    public List<AccountResponse> accounts() {
+        return accounts.stream().map(accountMapper::toResponse).toList();
+    }
+}
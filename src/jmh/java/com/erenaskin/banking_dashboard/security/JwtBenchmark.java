@@ -0,0 +1,61 @@
+package com.erenaskin.banking_dashboard.security;
+
+import com.erenaskin.banking_dashboard.entity.Role;
+import com.erenaskin.banking_dashboard.entity.User;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token issue and verification cost. {@code cached} compares the verified-token cache against
+ * a full HMAC verification on every call (cache size 0).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtBenchmark {
+
+    static final String SECRET = "6eFj9x!Q@wzL29mvRc5kTaD8Xx7#jYpZ";
+
+    @Param({"true", "false"})
+    public boolean cached;
+
+    private JwtUtil jwtUtil;
+    private User user;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtUtil = jwtUtil(cached);
+        user = User.builder().id(42L).email("bench@example.com").role(Role.USER).build();
+        token = jwtUtil.generateToken(user);
+    }
+
+    static JwtUtil jwtUtil(boolean cached) {
+        JwtUtil jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "secretKey", SECRET);
+        ReflectionTestUtils.setField(jwtUtil, "expiration", 3_600_000L);
+        ReflectionTestUtils.setField(jwtUtil, "cacheMaxSize", cached ? 10_000L : 0L);
+        jwtUtil.init();
+        return jwtUtil;
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtUtil.generateToken(user);
+    }
+
+    @Benchmark
+    public String extractUsername() {
+        return jwtUtil.extractUsername(token);
+    }
+
+    @Benchmark
+    public boolean isTokenValid() {
+        return jwtUtil.isTokenValid(token, "bench@example.com");
+    }
+}
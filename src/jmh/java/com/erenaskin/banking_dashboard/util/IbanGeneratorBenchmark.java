@@ -0,0 +1,65 @@
+package com.erenaskin.banking_dashboard.util;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.LongStream;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * IBAN allocation: formatting plus mod-97 check digits, and the allocator with block
+ * reservation stubbed out so only the in-memory path is measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class IbanGeneratorBenchmark {
+
+    private IbanGenerator generator;
+    private long accountNumber;
+    private String sample;
+
+    @Setup
+    public void setUp() {
+        AtomicLong sequence = new AtomicLong();
+        JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+        when(jdbcTemplate.queryForList(anyString(), eq(Long.class), any(Object[].class))).thenAnswer(invocation -> {
+            int count = invocation.getArgument(2);
+            long start = sequence.getAndAdd(count);
+            return LongStream.range(start + 1, start + count + 1).boxed().toList();
+        });
+        generator = new IbanGenerator(jdbcTemplate);
+        ReflectionTestUtils.setField(generator, "blockSize", 1000);
+        sample = IbanGenerator.format(1_234_567_890L);
+    }
+
+    @Benchmark
+    public String format() {
+        return IbanGenerator.format(++accountNumber);
+    }
+
+    @Benchmark
+    public String generateIban() {
+        return generator.generateIban();
+    }
+
+    @Benchmark
+    public boolean isValid() {
+        return IbanGenerator.isValid(sample);
+    }
+
+    @Benchmark
+    public List<String> generateIbans() {
+        return generator.generateIbans(100);
+    }
+}
@@ -0,0 +1,468 @@
+package com.erenaskin.banking_dashboard.load;
+
+import com.erenaskin.banking_dashboard.dto.TransactionResponse;
+import com.erenaskin.banking_dashboard.dto.TransactionView;
+import com.erenaskin.banking_dashboard.entity.Account;
+import com.erenaskin.banking_dashboard.entity.Transaction;
+import com.erenaskin.banking_dashboard.mapper.TransactionMapper;
+import com.erenaskin.banking_dashboard.repository.AccountRepository;
+import com.erenaskin.banking_dashboard.repository.TransactionRepository;
+import com.erenaskin.banking_dashboard.util.TransactionCursor;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Drives the real HTTP stack from many concurrent clients and reports throughput and latency
+ * percentiles per operation. Runs only with the {@code load} Maven profile:
+ *
+ * <pre>
+ *   ./mvnw -Pload test -Dload.clients=64 -Dload.duration-seconds=60
+ *   ./mvnw -Pload test -Dload.scenario=details -Dload.clients=2000 [-Dspring.profiles.active=virtual]
+ *   ./mvnw -Pload test -Dload.scenario=login-flood
+ *   ./mvnw -Pload test -Dload.scenario=history -Dload.history-transactions=100000
+ * </pre>
+ *
+ * A PostgreSQL container is started unless {@code load.jdbc-url} points at a local database.
+ * <ul>
+ *   <li>{@code mix} (default) runs deposits, withdrawals, transfers and detail reads in the
+ *   proportions of {@code load.mix}. At the end it asserts that the money in the system equals
+ *   all successful deposits minus all successful withdrawals, and that no account went
+ *   negative.</li>
+ *   <li>{@code details} only reads {@code /api/accounts/{iban}/details}.</li>
+ *   <li>{@code login-flood} times legitimate logins, paced like real users, while attacker
+ *   clients hammer the same users' emails with wrong passwords as fast as they can. Each group
+ *   sends its own {@code X-Forwarded-For} address, and the email limit is keyed on email and
+ *   client IP, so the legitimate logins should never see a 429.</li>
+ *   <li>{@code history} gives one account {@code load.history-transactions} rows. It first
+ *   compares the old entity read path (load {@code Transaction} entities, map them) with the
+ *   projection queries on a single thread, reporting latency and bytes allocated per page.
+ *   Then it reads details and history pages of {@code load.history-page-size} over HTTP.</li>
+ * </ul>
+ * All clients connect from the loopback address, so the per-IP auth bucket is raised for every run.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.jpa.show-sql=false",
+        "logging.level.org.springframework.security=WARN",
+        "logging.level.com.erenaskin.banking_dashboard=INFO",
+        "journal.dir=target/load-journal",
+        "server.forward-headers-strategy=native"
+})
+class LedgerLoadHarness {
+
+    private static final String SCENARIO = System.getProperty("load.scenario", "mix");
+    private static final int USERS = Integer.getInteger("load.users", 50);
+    private static final int ACCOUNTS_PER_USER = Integer.getInteger("load.accounts-per-user", 2);
+    private static final int CLIENTS = Integer.getInteger("load.clients", 32);
+    private static final int ATTACKERS = Integer.getInteger("load.attackers", 32);
+    private static final int LEGIT_CLIENTS = Integer.getInteger("load.legit-clients", 4);
+    private static final long LEGIT_THINK_MS = Long.getLong("load.legit-think-ms", 2000);
+    private static final int WARMUP_SECONDS = Integer.getInteger("load.warmup-seconds", 5);
+    private static final int DURATION_SECONDS = Integer.getInteger("load.duration-seconds", 30);
+    private static final BigDecimal INITIAL_BALANCE = new BigDecimal(System.getProperty("load.initial-balance", "1000.00"));
+    private static final String MIX = System.getProperty("load.mix", "deposit:20,withdraw:20,transfer:40,details:20");
+    private static final int HISTORY_TRANSACTIONS = Integer.getInteger("load.history-transactions", 100_000);
+    private static final int HISTORY_PAGE_SIZE = Integer.getInteger("load.history-page-size", 200);
+    private static final String PASSWORD = "load-password";
+
+    private static final String ENTITY_PAGE = """
+            select t from Transaction t
+            where t.account.id = :accountId
+              and (t.timestamp < :timestamp or (t.timestamp = :timestamp and t.id < :id))
+            order by t.timestamp desc, t.id desc
+            """;
+
+    private static PostgreSQLContainer<?> postgres;
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private TransactionMapper transactionMapper;
+
+    private final HttpClient http = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(10)).build();
+    private final List<Seeded> users = new ArrayList<>();
+    private final List<String> allIbans = new ArrayList<>();
+
+    private final AtomicLong deposited = new AtomicLong();
+    private final AtomicLong withdrawn = new AtomicLong();
+
+    @DynamicPropertySource
+    static void database(DynamicPropertyRegistry registry) {
+        String url = System.getProperty("load.jdbc-url");
+        if (url != null) {
+            registry.add("spring.datasource.url", () -> url);
+            registry.add("spring.datasource.username", () -> System.getProperty("load.jdbc-user", "postgres"));
+            registry.add("spring.datasource.password", () -> System.getProperty("load.jdbc-password", "postgres"));
+        } else {
+            postgres = new PostgreSQLContainer<>("postgres:17-alpine");
+            postgres.start();
+            registry.add("spring.datasource.url", postgres::getJdbcUrl);
+            registry.add("spring.datasource.username", postgres::getUsername);
+            registry.add("spring.datasource.password", postgres::getPassword);
+        }
+        registry.add("security.throttle.ip.capacity", () -> 1_000_000);
+        registry.add("security.throttle.ip.refill-per-minute", () -> 60_000_000);
+    }
+
+    @Test
+    void run() throws Exception {
+        seed();
+        switch (SCENARIO) {
+            case "mix" -> runMix();
+            case "details" -> runDetails();
+            case "login-flood" -> runLoginFlood();
+            case "history" -> runHistory();
+            default -> throw new IllegalArgumentException("Unknown load.scenario " + SCENARIO);
+        }
+    }
+
+    private void runMix() throws Exception {
+        List<String> operations = parseMix();
+        Map<String, Stats> stats = drive(CLIENTS, (client, random) -> {
+            String operation = operations.get(random.nextInt(operations.size()));
+            Seeded user = users.get(random.nextInt(users.size()));
+            String iban = user.ibans.get(random.nextInt(user.ibans.size()));
+            long cents = 1 + random.nextInt(10_000);
+            BigDecimal amount = BigDecimal.valueOf(cents, 2);
+            return switch (operation) {
+                case "deposit" -> new Call(operation, () -> {
+                    HttpResponse<String> response = post("/api/accounts/" + iban + "/transactions", user.token,
+                            Map.of("type", "DEPOSIT", "amount", amount, "senderIban", iban, "receiverIban", iban));
+                    if (response.statusCode() == 200) {
+                        deposited.addAndGet(cents);
+                    }
+                    return response;
+                });
+                case "withdraw" -> new Call(operation, () -> {
+                    HttpResponse<String> response = post("/api/accounts/" + iban + "/transactions", user.token,
+                            Map.of("type", "WITHDRAW", "amount", amount, "senderIban", iban, "receiverIban", iban));
+                    if (response.statusCode() == 200) {
+                        withdrawn.addAndGet(cents);
+                    }
+                    return response;
+                });
+                case "transfer" -> {
+                    String receiver = allIbans.get(random.nextInt(allIbans.size()));
+                    yield new Call(operation, () -> post("/api/transactions", user.token,
+                            Map.of("type", "TRANSFER", "amount", amount, "senderIban", iban, "receiverIban", receiver)));
+                }
+                default -> new Call(operation, () -> get("/api/accounts/" + iban + "/details", user.token));
+            };
+        });
+        report(stats);
+
+        BigDecimal seeded = INITIAL_BALANCE.multiply(BigDecimal.valueOf(allIbans.size()));
+        BigDecimal expected = seeded.add(BigDecimal.valueOf(deposited.get() - withdrawn.get(), 2));
+        BigDecimal total = jdbcTemplate.queryForObject("select coalesce(sum(balance), 0) from accounts", BigDecimal.class);
+        Long negative = jdbcTemplate.queryForObject("select count(*) from accounts where balance < 0", Long.class);
+        System.out.printf("Money in system: %s, expected %s (seeded %s, +%s deposits, -%s withdrawals)%n",
+                total, expected, seeded, BigDecimal.valueOf(deposited.get(), 2), BigDecimal.valueOf(withdrawn.get(), 2));
+
+        assertThat(total).isEqualByComparingTo(expected);
+        assertThat(negative).isZero();
+    }
+
+    private void runDetails() throws Exception {
+        report(drive(CLIENTS, (client, random) -> {
+            Seeded user = users.get(random.nextInt(users.size()));
+            String iban = user.ibans.get(random.nextInt(user.ibans.size()));
+            return new Call("details", () -> get("/api/accounts/" + iban + "/details", user.token));
+        }));
+    }
+
+    private void runLoginFlood() throws Exception {
+        report(drive(LEGIT_CLIENTS + ATTACKERS, (client, random) -> {
+            String email = users.get(random.nextInt(users.size())).email;
+            if (client >= LEGIT_CLIENTS) {
+                String attackerIp = "203.0.113." + (client % 250 + 1);
+                return new Call("login-attacker", () -> post("/api/auth/login", null,
+                        Map.of("email", email, "password", "wrong-" + random.nextInt()), attackerIp));
+            }
+            String legitIp = "198.51.100." + (client % 250 + 1);
+            return new Call("login-legit", () -> post("/api/auth/login", null,
+                    Map.of("email", email, "password", PASSWORD), legitIp), LEGIT_THINK_MS);
+        }));
+    }
+
+    private void runHistory() throws Exception {
+        Seeded user = users.get(0);
+        String iban = user.ibans.get(0);
+        Long accountId = seedHistory(iban);
+        compareReadPaths(accountId);
+
+        report(drive(CLIENTS, (client, random) -> random.nextBoolean()
+                ? new Call("details", () -> get("/api/accounts/" + iban + "/details?size=" + HISTORY_PAGE_SIZE, user.token))
+                : new Call("history", () -> get("/api/transactions/" + iban + "?size=" + HISTORY_PAGE_SIZE, user.token))));
+    }
+
+    // Rows go straight into the table; the account balance is not touched, so no money invariant here.
+    private Long seedHistory(String iban) {
+        long start = System.nanoTime();
+        Long accountId = jdbcTemplate.queryForObject("select id from accounts where iban = ?", Long.class, iban);
+        LocalDateTime first = LocalDateTime.now().minusSeconds(HISTORY_TRANSACTIONS);
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 0; i < HISTORY_TRANSACTIONS; i++) {
+            rows.add(new Object[]{"DEPOSIT", iban, BigDecimal.ONE, Timestamp.valueOf(first.plusSeconds(i)), accountId,
+                    INITIAL_BALANCE.add(BigDecimal.valueOf(i + 1L))});
+            if (rows.size() == 1000 || i == HISTORY_TRANSACTIONS - 1) {
+                jdbcTemplate.batchUpdate("insert into transactions (type, receiver_iban, amount, timestamp, account_id, receiver_balance_after) values (?, ?, ?, ?, ?, ?)", rows);
+                rows.clear();
+            }
+        }
+        System.out.printf("Seeded %d transactions for %s in %d ms%n",
+                HISTORY_TRANSACTIONS, iban, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        return accountId;
+    }
+
+    /**
+     * Reads the first page of the account's history, header included, through both read paths on
+     * this thread, each in its own transaction like a request's session. Allocation is what this
+     * thread allocated, which includes the JDBC driver's result set decoding.
+     */
+    private void compareReadPaths(Long accountId) {
+        TransactionCursor from = TransactionCursor.START;
+        Map<String, Supplier<List<TransactionResponse>>> paths = new LinkedHashMap<>();
+        paths.put("entity", () -> {
+            entityManager.find(Account.class, accountId).getBalance();
+            return entityManager.createQuery(ENTITY_PAGE, Transaction.class)
+                    .setParameter("accountId", accountId)
+                    .setParameter("timestamp", from.timestamp())
+                    .setParameter("id", from.id())
+                    .setMaxResults(HISTORY_PAGE_SIZE + 1)
+                    .getResultStream()
+                    .map(transactionMapper::toResponse)
+                    .toList();
+        });
+        paths.put("projection", () -> {
+            accountRepository.findSummaryById(accountId).orElseThrow();
+            return transactionRepository.findByAccountBefore(accountId, from.timestamp(), from.id(),
+                            PageRequest.of(0, HISTORY_PAGE_SIZE + 1)).stream()
+                    .map(TransactionView::toResponse)
+                    .toList();
+        });
+
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        System.out.printf("%nRead path, page of %d out of %d transactions%n", HISTORY_PAGE_SIZE, HISTORY_TRANSACTIONS);
+        System.out.printf("%-12s %10s %9s %9s %9s %12s%n", "path", "count", "p50 ms", "p99 ms", "max ms", "KB/page");
+        paths.forEach((name, path) -> {
+            Histogram latency = new Histogram(TimeUnit.MINUTES.toNanos(1), 3);
+            long allocated = 0;
+            long measureFrom = System.nanoTime() + TimeUnit.SECONDS.toNanos(WARMUP_SECONDS);
+            long stopAt = measureFrom + TimeUnit.SECONDS.toNanos(DURATION_SECONDS);
+            while (System.nanoTime() < stopAt) {
+                long bytesBefore = threads.getCurrentThreadAllocatedBytes();
+                long started = System.nanoTime();
+                List<TransactionResponse> page = transactionTemplate.execute(status -> path.get());
+                long elapsed = System.nanoTime() - started;
+                assertThat(page).hasSize(Math.min(HISTORY_PAGE_SIZE + 1, HISTORY_TRANSACTIONS + 1));
+                if (started >= measureFrom) {
+                    latency.recordValue(Math.min(elapsed, latency.getHighestTrackableValue()));
+                    allocated += threads.getCurrentThreadAllocatedBytes() - bytesBefore;
+                }
+            }
+            System.out.printf("%-12s %10d %9.2f %9.2f %9.2f %12.1f%n", name, latency.getTotalCount(),
+                    latency.getValueAtPercentile(50) / 1e6, latency.getValueAtPercentile(99) / 1e6,
+                    latency.getMaxValue() / 1e6, allocated / 1024.0 / Math.max(1, latency.getTotalCount()));
+        });
+    }
+
+    private void seed() throws Exception {
+        long start = System.nanoTime();
+        String run = Long.toString(System.currentTimeMillis(), 36);
+        for (int u = 0; u < USERS; u++) {
+            String email = "load-" + run + "-" + u + "@example.com";
+            HttpResponse<String> registered = post("/api/auth/register", null,
+                    Map.of("fullName", "Load User " + u, "email", email, "password", PASSWORD));
+            assertThat(registered.statusCode()).as("register %s: %s", email, registered.body()).isEqualTo(200);
+            String token = objectMapper.readTree(registered.body()).get("token").asText();
+
+            for (int a = 0; a < ACCOUNTS_PER_USER; a++) {
+                assertThat(post("/api/accounts", token, Map.of("currency", "TRY")).statusCode()).isEqualTo(200);
+            }
+            List<String> ibans = new ArrayList<>();
+            for (JsonNode account : objectMapper.readTree(get("/api/accounts", token).body())) {
+                String iban = account.get("iban").asText();
+                ibans.add(iban);
+                HttpResponse<String> deposit = post("/api/accounts/" + iban + "/transactions", token,
+                        Map.of("type", "DEPOSIT", "amount", INITIAL_BALANCE, "senderIban", iban, "receiverIban", iban));
+                assertThat(deposit.statusCode()).as("seed deposit: %s", deposit.body()).isEqualTo(200);
+            }
+            users.add(new Seeded(email, token, ibans));
+            allIbans.addAll(ibans);
+        }
+        System.out.printf("Seeded %d users and %d accounts in %d ms%n",
+                users.size(), allIbans.size(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    /**
+     * Runs {@code clients} closed-loop clients for the warmup plus the measured duration. Only
+     * calls that start inside the measured window are recorded.
+     */
+    private Map<String, Stats> drive(int clients, CallFactory factory) throws InterruptedException {
+        Map<String, Stats> stats = new ConcurrentHashMap<>();
+        long measureFrom = System.nanoTime() + TimeUnit.SECONDS.toNanos(WARMUP_SECONDS);
+        long stopAt = measureFrom + TimeUnit.SECONDS.toNanos(DURATION_SECONDS);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+
+        ExecutorService pool = Executors.newFixedThreadPool(clients);
+        for (int c = 0; c < clients; c++) {
+            int client = c;
+            pool.execute(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                while (System.nanoTime() < stopAt && failure.get() == null) {
+                    Call call = factory.next(client, random);
+                    long started = System.nanoTime();
+                    int status;
+                    try {
+                        status = call.action.call().statusCode();
+                    } catch (IOException e) {
+                        status = -1;
+                    } catch (Exception e) {
+                        failure.compareAndSet(null, e);
+                        return;
+                    }
+                    if (started >= measureFrom) {
+                        stats.computeIfAbsent(call.operation, operation -> new Stats()).record(System.nanoTime() - started, status);
+                    }
+                    if (call.thinkMs > 0) {
+                        try {
+                            Thread.sleep(call.thinkMs);
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                            return;
+                        }
+                    }
+                }
+            });
+        }
+        pool.shutdown();
+        pool.awaitTermination(WARMUP_SECONDS + DURATION_SECONDS + 120L, TimeUnit.SECONDS);
+        assertThat(failure.get()).isNull();
+        return stats;
+    }
+
+    private void report(Map<String, Stats> stats) {
+        System.out.printf("%nScenario %s, %d s measured%n", SCENARIO, DURATION_SECONDS);
+        System.out.printf("%-16s %10s %10s %9s %9s %9s %9s  %s%n",
+                "operation", "count", "ops/s", "p50 ms", "p99 ms", "p999 ms", "max ms", "status codes");
+        new TreeMap<>(stats).forEach((operation, s) -> {
+            Histogram h = s.latency;
+            System.out.printf("%-16s %10d %10.1f %9.2f %9.2f %9.2f %9.2f  %s%n", operation, h.getTotalCount(),
+                    h.getTotalCount() / (double) DURATION_SECONDS,
+                    h.getValueAtPercentile(50) / 1e6, h.getValueAtPercentile(99) / 1e6,
+                    h.getValueAtPercentile(99.9) / 1e6, h.getMaxValue() / 1e6, new TreeMap<>(s.statuses));
+        });
+    }
+
+    private List<String> parseMix() {
+        List<String> operations = new ArrayList<>();
+        for (String entry : MIX.split(",")) {
+            String[] parts = entry.trim().split(":");
+            for (int i = 0; i < Integer.parseInt(parts[1]); i++) {
+                operations.add(parts[0]);
+            }
+        }
+        return operations;
+    }
+
+    private HttpResponse<String> post(String path, String token, Object body) throws IOException, InterruptedException {
+        return post(path, token, body, null);
+    }
+
+    private HttpResponse<String> post(String path, String token, Object body, String clientIp)
+            throws IOException, InterruptedException {
+        HttpRequest.Builder request = request(path, token)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(body)));
+        if (clientIp != null) {
+            request.header("X-Forwarded-For", clientIp);
+        }
+        return http.send(request.build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private HttpResponse<String> get(String path, String token) throws IOException, InterruptedException {
+        return http.send(request(path, token).GET().build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private HttpRequest.Builder request(String path, String token) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create("http://127.0.0.1:" + port + path))
+                .timeout(Duration.ofSeconds(60));
+        if (token != null) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+        return builder;
+    }
+
+    private record Seeded(String email, String token, List<String> ibans) {
+    }
+
+    private record Call(String operation, Callable<HttpResponse<String>> action, long thinkMs) {
+        Call(String operation, Callable<HttpResponse<String>> action) {
+            this(operation, action, 0);
+        }
+    }
+
+    @FunctionalInterface
+    private interface CallFactory {
+        Call next(int client, ThreadLocalRandom random);
+    }
+
+    private static final class Stats {
+        final Histogram latency = new ConcurrentHistogram(TimeUnit.MINUTES.toNanos(2), 3);
+        final Map<Integer, AtomicLong> statuses = new ConcurrentHashMap<>();
+
+        void record(long nanos, int status) {
+            latency.recordValue(Math.min(nanos, latency.getHighestTrackableValue()));
+            statuses.computeIfAbsent(status, s -> new AtomicLong()).incrementAndGet();
+        }
+    }
+}
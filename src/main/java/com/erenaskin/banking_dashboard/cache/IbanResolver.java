@@ -0,0 +1,71 @@
+package com.erenaskin.banking_dashboard.cache;
+
+import com.erenaskin.banking_dashboard.entity.Account;
+import com.erenaskin.banking_dashboard.repository.AccountRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Resolves IBANs to accounts through the unique {@code iban} index, remembering the
+ * IBAN to account-id mapping so repeat lookups become primary key reads.
+ */
+@Component
+@RequiredArgsConstructor
+public class IbanResolver {
+
+    private final AccountRepository accountRepository;
+
+    @Value("${cache.iban.max-size:100000}")
+    private long maxSize;
+
+    @Value("${cache.iban.ttl-minutes:10}")
+    private long ttlMinutes;
+
+    private Cache<String, Long> ids;
+
+    @PostConstruct
+    public void init() {
+        ids = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofMinutes(ttlMinutes))
+                .recordStats()
+                .build();
+    }
+
+    public Optional<Long> resolveId(String iban) {
+        if (iban == null || iban.isBlank()) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(ids.get(iban, key -> accountRepository.findIdByIban(key).orElse(null)));
+    }
+
+    public Optional<Account> resolve(String iban) {
+        Optional<Account> account = resolveId(iban).flatMap(accountRepository::findById);
+        if (account.isEmpty()) {
+            evict(iban);
+        }
+        return account;
+    }
+
+    public void evict(String iban) {
+        if (iban != null) {
+            ids.invalidate(iban);
+        }
+    }
+
+    public long size() {
+        return ids.estimatedSize();
+    }
+
+    public CacheStats stats() {
+        return ids.stats();
+    }
+}
@@ -0,0 +1,128 @@
+package com.erenaskin.banking_dashboard.config;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Caps concurrently executing API requests at the size of the connection pool. With virtual
+ * threads there is no servlet thread limit any more, so without this thousands of requests
+ * would pile up inside HikariCP and time out there instead of waiting fairly here.
+ * Authentication endpoints are bounded separately and are not counted. Requests that go async
+ * (streamed exports) keep their permit until the async request completes, since that is when
+ * they give their connection back. Rejections are written here as 503 with {@code Retry-After}:
+ * exceptions thrown from a filter never reach {@code GlobalExceptionHandler}.
+ */
+@Component
+@ConditionalOnProperty(name = "db.concurrency.limit-enabled", havingValue = "true")
+@Slf4j
+public class ConnectionPoolLimitFilter extends OncePerRequestFilter {
+
+    @Value("${db.concurrency.permits:${spring.datasource.hikari.maximum-pool-size:10}}")
+    private int permits;
+
+    @Value("${db.concurrency.acquire-timeout-ms:5000}")
+    private long acquireTimeoutMs;
+
+    private Semaphore semaphore;
+
+    @PostConstruct
+    public void init() {
+        semaphore = new Semaphore(permits, true);
+        log.info("Limiting concurrent API requests to {} (connection pool size)", permits);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getRequestURI();
+        return !path.startsWith("/api/") || path.startsWith("/api/auth/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        boolean acquired;
+        try {
+            acquired = semaphore.tryAcquire(acquireTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+
+        if (!acquired) {
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            return;
+        }
+
+        Permit permit = new Permit();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            if (request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(permit);
+            } else {
+                permit.release();
+            }
+        }
+    }
+
+    public int availablePermits() {
+        return semaphore.availablePermits();
+    }
+
+    public int queueLength() {
+        return semaphore.getQueueLength();
+    }
+
+    /**
+     * Releases the permit exactly once; an async request can report an error or timeout and then
+     * still complete.
+     */
+    private class Permit implements AsyncListener {
+
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        void release() {
+            if (released.compareAndSet(false, true)) {
+                semaphore.release();
+            }
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            event.getAsyncContext().addListener(this);
+        }
+    }
+}
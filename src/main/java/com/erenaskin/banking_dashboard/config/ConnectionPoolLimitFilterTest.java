@@ -0,0 +1,71 @@
+package com.erenaskin.banking_dashboard.config;
+
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ConnectionPoolLimitFilterTest {
+
+    private ConnectionPoolLimitFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        filter = new ConnectionPoolLimitFilter();
+        ReflectionTestUtils.setField(filter, "permits", 1);
+        ReflectionTestUtils.setField(filter, "acquireTimeoutMs", 10L);
+        filter.init();
+    }
+
+    @Test
+    void doFilter_ShouldReleasePermit_WhenRequestCompletes() throws Exception {
+        filter.doFilter(request(), new MockHttpServletResponse(), mock(FilterChain.class));
+
+        assertEquals(1, filter.availablePermits());
+    }
+
+    @Test
+    void doFilter_ShouldHoldPermitUntilAsyncRequestCompletes() throws Exception {
+        MockHttpServletRequest request = request();
+        request.setAsyncSupported(true);
+        FilterChain chain = (req, res) -> req.startAsync();
+
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+        assertEquals(0, filter.availablePermits());
+
+        MockHttpServletResponse rejected = new MockHttpServletResponse();
+        filter.doFilter(request(), rejected, mock(FilterChain.class));
+        assertEquals(503, rejected.getStatus());
+
+        request.getAsyncContext().complete();
+        assertEquals(1, filter.availablePermits());
+    }
+
+    @Test
+    void doFilter_ShouldWrite503_WhenInterruptedWhileWaiting() throws Exception {
+        FilterChain chain = mock(FilterChain.class);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        Thread.currentThread().interrupt();
+        try {
+            filter.doFilter(request(), response, chain);
+        } finally {
+            assertTrue(Thread.interrupted());
+        }
+
+        assertEquals(503, response.getStatus());
+        assertEquals("1", response.getHeader(HttpHeaders.RETRY_AFTER));
+        verifyNoInteractions(chain);
+        assertEquals(1, filter.availablePermits());
+    }
+
+    private static MockHttpServletRequest request() {
+        return new MockHttpServletRequest("GET", "/api/accounts");
+    }
+}
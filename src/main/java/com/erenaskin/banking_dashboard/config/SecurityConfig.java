@@ -1,7 +1,12 @@
 package com.erenaskin.banking_dashboard.config;
 
+import com.erenaskin.banking_dashboard.security.BCryptStrengthCalibrator;
 import com.erenaskin.banking_dashboard.security.JwtAuthFilter;
+import jakarta.servlet.DispatcherType;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.autoconfigure.security.servlet.EndpointRequest;
+import org.springframework.core.annotation.Order;
 import org.springframework.context.annotation.*;
 import org.springframework.security.authentication.*;
 import org.springframework.security.config.annotation.authentication.configuration.*;
@@ -19,11 +24,30 @@ public class SecurityConfig {
     private final JwtAuthFilter jwtAuthFilter;
     private final com.erenaskin.banking_dashboard.security.CustomUserDetailsService userDetailsService;
 
+    /**
+     * Actuator is served only on {@code management.server.port}, bound to an internal address,
+     * so scrapes and probes there need no token. The matcher ignores the public port, where
+     * {@code /actuator/**} falls through to the authenticated chain below.
+     */
     @Bean
+    @Order(1)
+    public SecurityFilterChain managementFilterChain(HttpSecurity http) throws Exception {
+        http
+                .securityMatcher(EndpointRequest.toAnyEndpoint())
+                .csrf(csrf -> csrf.disable())
+                .authorizeHttpRequests(auth -> auth.anyRequest().permitAll())
+                .sessionManagement(sess -> sess.sessionCreationPolicy(SessionCreationPolicy.STATELESS));
+
+        return http.build();
+    }
+
+    @Bean
+    @Order(2)
     public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
         http
                 .csrf(csrf -> csrf.disable())
                 .authorizeHttpRequests(auth -> auth
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                         .requestMatchers("/api/auth/**").permitAll()
                         .anyRequest().authenticated()
                 )
@@ -40,7 +64,13 @@ public class SecurityConfig {
     }
 
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(@Value("${security.bcrypt.strength:0}") int strength,
+                                           @Value("${security.bcrypt.target-ms:250}") long targetMs,
+                                           @Value("${security.bcrypt.min-strength:10}") int minStrength,
+                                           @Value("${security.bcrypt.max-strength:14}") int maxStrength) {
+        int effectiveStrength = strength > 0
+                ? strength
+                : BCryptStrengthCalibrator.calibrate(targetMs, minStrength, maxStrength);
+        return new BCryptPasswordEncoder(effectiveStrength);
     }
 }
@@ -1,11 +1,19 @@
 package com.erenaskin.banking_dashboard.controller;
 
 import com.erenaskin.banking_dashboard.dto.*;
+import com.erenaskin.banking_dashboard.entity.Currency;
 import com.erenaskin.banking_dashboard.service.AccountService;
+import com.erenaskin.banking_dashboard.service.IdempotencyService;
+import com.erenaskin.banking_dashboard.service.TransactionExportService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @RestController
@@ -14,6 +22,8 @@ import java.util.List;
 public class AccountController {
 
     private final AccountService accountService;
+    private final TransactionExportService transactionExportService;
+    private final IdempotencyService idempotencyService;
 
     @PostMapping
     public ResponseEntity<Void> createAccount(@RequestBody AccountRequest request) {
@@ -27,20 +37,51 @@ public class AccountController {
         return ResponseEntity.ok(accounts);
     }
 
+    @GetMapping("/total")
+    public ResponseEntity<PortfolioTotalResponse> getPortfolioTotal(@RequestParam(defaultValue = "TRY") Currency in) {
+        return ResponseEntity.ok(accountService.getPortfolioTotal(in));
+    }
+
     @GetMapping("/{iban}/currency")
     public ResponseEntity<String> getCurrency(@PathVariable String iban) {
         return ResponseEntity.ok(accountService.getCurrencyByIban(iban).name());
     }
 
     @GetMapping("/{iban}/details")
-    public ResponseEntity<AccountDetailsResponse> getAccountDetails(@PathVariable String iban) {
-        AccountDetailsResponse details = accountService.getAccountDetails(iban);
+    public ResponseEntity<AccountDetailsResponse> getAccountDetails(@PathVariable String iban,
+                                                                    @RequestParam(required = false) String cursor,
+                                                                    @RequestParam(required = false) Integer size) {
+        AccountDetailsResponse details = accountService.getAccountDetails(iban, cursor, size);
         return ResponseEntity.ok(details);
     }
 
+    @GetMapping("/{iban}/summary")
+    public ResponseEntity<List<MonthlySummaryResponse>> getMonthlySummary(@PathVariable String iban,
+                                                                          @RequestParam(required = false) Integer months) {
+        return ResponseEntity.ok(accountService.getMonthlySummary(iban, months));
+    }
+
     @PostMapping("/{iban}/transactions")
-    public ResponseEntity<Void> createTransaction(@PathVariable String iban, @RequestBody TransferRequest request) {
-        accountService.createTransaction(iban, request);
-        return ResponseEntity.ok().build();
+    public ResponseEntity<?> createTransaction(@PathVariable String iban, @RequestBody TransferRequest request,
+                                               @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey) {
+        return idempotencyService.execute(idempotencyKey, "POST /api/accounts/" + iban + "/transactions", request, () -> {
+            accountService.createTransaction(iban, request);
+            return ResponseEntity.ok().build();
+        });
+    }
+
+    @GetMapping("/{iban}/transactions/export")
+    public ResponseEntity<StreamingResponseBody> exportTransactions(
+            @PathVariable String iban,
+            @RequestParam(defaultValue = "ndjson") String format,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        ExportFormat exportFormat = ExportFormat.from(format);
+        StreamingResponseBody body = transactionExportService.export(iban, exportFormat, from, to);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.contentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"" + iban + "-transactions." + exportFormat.extension() + "\"")
+                .body(body);
     }
 }
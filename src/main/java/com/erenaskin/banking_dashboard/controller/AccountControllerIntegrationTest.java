@@ -4,6 +4,8 @@ import com.erenaskin.banking_dashboard.dto.AccountRequest;
 import com.erenaskin.banking_dashboard.dto.TransferRequest;
 import com.erenaskin.banking_dashboard.entity.Role;
 import com.erenaskin.banking_dashboard.entity.User;
+import com.erenaskin.banking_dashboard.metrics.RequestStatements;
+import com.erenaskin.banking_dashboard.metrics.StatementBudgetFilter;
 import com.erenaskin.banking_dashboard.repository.AccountRepository;
 import com.erenaskin.banking_dashboard.repository.UserRepository;
 import com.fasterxml.jackson.databind.JsonNode;
@@ -17,6 +19,7 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
 import java.math.BigDecimal;
 
@@ -25,7 +28,11 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
-@SpringBootTest
+@SpringBootTest(properties = {
+        "sql.budget.enabled=true",
+        "sql.budget.fail-fast=true",
+        "sql.budget.max-statements=10"
+})
 @AutoConfigureMockMvc
 @TestMethodOrder(MethodOrderer.OrderAnnotation.class)
 class AccountControllerIntegrationTest {
@@ -138,4 +145,54 @@ class AccountControllerIntegrationTest {
                 .andExpect(jsonPath("$.transactions[0].amount").value("500.00"))
                 .andExpect(jsonPath("$.transactions[0].type").value("DEPOSIT"));
     }
+
+    @Test
+    @Order(6)
+    void getAccountDetails_ShouldNotIssueStatementsPerTransaction() throws Exception {
+        depositToAccount_ShouldSucceed();
+        detailsStatements();
+        RequestStatements single = detailsStatements();
+
+        for (int i = 0; i < 4; i++) {
+            depositToAccount_ShouldSucceed();
+        }
+        detailsStatements();
+        RequestStatements several = detailsStatements();
+
+        assertThat(several.statements()).isEqualTo(single.statements());
+        assertThat(several.statements()).isLessThanOrEqualTo(4);
+    }
+
+    @Test
+    @Order(7)
+    void getUserAccounts_ShouldNotIssueStatementsPerAccount() throws Exception {
+        createAccount_ShouldReturnOk();
+        accountsStatements();
+        RequestStatements single = accountsStatements();
+
+        for (int i = 0; i < 4; i++) {
+            createAccount_ShouldReturnOk();
+        }
+        accountsStatements();
+        RequestStatements several = accountsStatements();
+
+        assertThat(several.statements()).isEqualTo(single.statements());
+    }
+
+    private RequestStatements accountsStatements() throws Exception {
+        MvcResult result = mockMvc.perform(get("/api/accounts")
+                        .header("Authorization", "Bearer " + jwtToken))
+                .andExpect(status().isOk())
+                .andReturn();
+        return (RequestStatements) result.getRequest().getAttribute(StatementBudgetFilter.STATS_ATTRIBUTE);
+    }
+
+    // The first call after a write may still warm caches, so callers measure the second one.
+    private RequestStatements detailsStatements() throws Exception {
+        MvcResult result = mockMvc.perform(get("/api/accounts/{iban}/details", testIban)
+                        .header("Authorization", "Bearer " + jwtToken))
+                .andExpect(status().isOk())
+                .andReturn();
+        return (RequestStatements) result.getRequest().getAttribute(StatementBudgetFilter.STATS_ATTRIBUTE);
+    }
 }
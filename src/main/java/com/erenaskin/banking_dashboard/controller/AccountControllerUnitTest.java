@@ -4,6 +4,8 @@ import com.erenaskin.banking_dashboard.dto.AccountRequest;
 import com.erenaskin.banking_dashboard.dto.AccountResponse;
 import com.erenaskin.banking_dashboard.entity.Currency;
 import com.erenaskin.banking_dashboard.service.AccountService;
+import com.erenaskin.banking_dashboard.service.TransactionExportService;
+import com.erenaskin.banking_dashboard.service.IdempotencyService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
@@ -13,10 +15,12 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.test.web.servlet.MockMvc;
 
 import java.math.BigDecimal;
 import java.util.List;
+import java.util.function.Supplier;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.when;
@@ -86,10 +90,11 @@ public class AccountControllerUnitTest {
                 iban,
                 "TRY",
                 BigDecimal.valueOf(1500),
-                List.of()
+                List.of(),
+                null
         );
 
-        when(accountService.getAccountDetails(iban)).thenReturn(accountDetails);
+        when(accountService.getAccountDetails(iban, null, null)).thenReturn(accountDetails);
 
         mockMvc.perform(get("/api/accounts/{iban}/details", iban))
                 .andExpect(status().isOk())
@@ -134,5 +139,19 @@ public class AccountControllerUnitTest {
         public AccountService accountService() {
             return Mockito.mock(AccountService.class);
         }
+
+        @Bean
+        public TransactionExportService transactionExportService() {
+            return Mockito.mock(TransactionExportService.class);
+        }
+
+        @Bean
+        @SuppressWarnings("unchecked")
+        public IdempotencyService idempotencyService() {
+            IdempotencyService service = Mockito.mock(IdempotencyService.class);
+            Mockito.when(service.execute(any(), any(), any(), any()))
+                    .thenAnswer(invocation -> ((Supplier<ResponseEntity<?>>) invocation.getArgument(3)).get());
+            return service;
+        }
     }
 }
@@ -4,6 +4,7 @@ package com.erenaskin.banking_dashboard.controller;
 import com.erenaskin.banking_dashboard.dto.AuthResponse;
 import com.erenaskin.banking_dashboard.dto.LoginRequest;
 import com.erenaskin.banking_dashboard.dto.RegisterRequest;
+import com.erenaskin.banking_dashboard.exception.AuthenticationFailedException;
 import com.erenaskin.banking_dashboard.service.AuthService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
@@ -25,4 +26,14 @@ public class AuthController {
     public ResponseEntity<AuthResponse> login(@RequestBody LoginRequest request) {
         return ResponseEntity.ok(authService.login(request));
     }
+
+    @PostMapping("/logout")
+    public ResponseEntity<Void> logout(@RequestHeader("Authorization") String authHeader,
+                                       @RequestParam(defaultValue = "false") boolean allSessions) {
+        if (!authHeader.startsWith("Bearer ")) {
+            throw new AuthenticationFailedException("Authorization header must be a Bearer token");
+        }
+        authService.logout(authHeader.substring(7), allSessions);
+        return ResponseEntity.noContent().build();
+    }
 }
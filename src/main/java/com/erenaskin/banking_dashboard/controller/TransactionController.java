@@ -1,11 +1,15 @@
 package com.erenaskin.banking_dashboard.controller;
 
 import com.erenaskin.banking_dashboard.dto.*;
+import com.erenaskin.banking_dashboard.service.IdempotencyService;
 import com.erenaskin.banking_dashboard.service.TransactionService;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
 import java.util.List;
 
 @RestController
@@ -13,16 +17,35 @@ import java.util.List;
 @RequiredArgsConstructor
 public class TransactionController {
 
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
     private final TransactionService transactionService;
+    private final IdempotencyService idempotencyService;
 
     @PostMapping
-    public ResponseEntity<Void> transfer(@RequestBody TransferRequest request) {
-        transactionService.transfer(request);
-        return ResponseEntity.ok().build();
+    public ResponseEntity<?> transfer(@RequestBody TransferRequest request,
+                                      @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey) {
+        return idempotencyService.execute(idempotencyKey, "POST /api/transactions", request, () -> {
+            transactionService.transfer(request);
+            return ResponseEntity.ok().build();
+        });
+    }
+
+    @PostMapping(value = "/batch", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<List<BatchTransferResult>> transferBatch(HttpServletRequest request) throws IOException {
+        return ResponseEntity.ok(transactionService.transferBatch(request.getInputStream()));
     }
 
     @GetMapping("/{iban}")
-    public ResponseEntity<List<TransactionResponse>> history(@PathVariable String iban) {
-        return ResponseEntity.ok(transactionService.getHistory(iban));
+    public ResponseEntity<List<TransactionResponse>> history(@PathVariable String iban,
+                                                             @RequestParam(required = false) String cursor,
+                                                             @RequestParam(required = false) Integer size) {
+        CursorPage<TransactionResponse> page = transactionService.getHistory(iban, cursor, size);
+        if (page.nextCursor() == null) {
+            return ResponseEntity.ok(page.items());
+        }
+        return ResponseEntity.ok()
+                .header(NEXT_CURSOR_HEADER, page.nextCursor())
+                .body(page.items());
     }
 }
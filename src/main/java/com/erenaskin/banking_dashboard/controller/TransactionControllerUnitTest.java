@@ -1,8 +1,11 @@
 package com.erenaskin.banking_dashboard.controller;
 
+import com.erenaskin.banking_dashboard.dto.BatchTransferResult;
+import com.erenaskin.banking_dashboard.dto.CursorPage;
 import com.erenaskin.banking_dashboard.dto.TransactionResponse;
 import com.erenaskin.banking_dashboard.dto.TransferRequest;
 import com.erenaskin.banking_dashboard.service.TransactionService;
+import com.erenaskin.banking_dashboard.service.IdempotencyService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
@@ -12,11 +15,13 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.test.web.servlet.MockMvc;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.function.Supplier;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.doNothing;
@@ -53,6 +58,30 @@ public class TransactionControllerUnitTest {
                 .andExpect(status().isOk());
     }
 
+    @Test
+    void transferBatch_ShouldReturnPerItemResults() throws Exception {
+        String payload = """
+                [
+                  {"type": "TRANSFER", "amount": 100, "senderIban": "TR123", "receiverIban": "TR456"},
+                  {"type": "TRANSFER", "amount": 900, "senderIban": "TR123", "receiverIban": "TR456"}
+                ]
+                """;
+
+        when(transactionService.transferBatch(any())).thenReturn(List.of(
+                BatchTransferResult.success(0),
+                BatchTransferResult.failed(1, "Insufficient balance")
+        ));
+
+        mockMvc.perform(post("/api/transactions/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(payload))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].status").value("SUCCESS"))
+                .andExpect(jsonPath("$[1].status").value("FAILED"))
+                .andExpect(jsonPath("$[1].message").value("Insufficient balance"));
+    }
+
     @Test
     void history_ShouldReturnTransactionList() throws Exception {
         String iban = "TR123";
@@ -61,10 +90,11 @@ public class TransactionControllerUnitTest {
                 new TransactionResponse("TR789", "TR123", BigDecimal.valueOf(50), LocalDateTime.of(2025, 7, 8, 9, 30))
         );
 
-        when(transactionService.getHistory(iban)).thenReturn(transactions);
+        when(transactionService.getHistory(iban, null, null)).thenReturn(new CursorPage<>(transactions, "next-page"));
 
         mockMvc.perform(get("/api/transactions/{iban}", iban))
                 .andExpect(status().isOk())
+                .andExpect(header().string(TransactionController.NEXT_CURSOR_HEADER, "next-page"))
                 .andExpect(jsonPath("$.length()").value(2))
                 .andExpect(jsonPath("$[0].senderIban").value(iban))
                 .andExpect(jsonPath("$[0].type").value("TRANSFER"))
@@ -78,5 +108,14 @@ public class TransactionControllerUnitTest {
         public TransactionService transactionService() {
             return Mockito.mock(TransactionService.class);
         }
+
+        @Bean
+        @SuppressWarnings("unchecked")
+        public IdempotencyService idempotencyService() {
+            IdempotencyService service = Mockito.mock(IdempotencyService.class);
+            Mockito.when(service.execute(any(), any(), any(), any()))
+                    .thenAnswer(invocation -> ((Supplier<ResponseEntity<?>>) invocation.getArgument(3)).get());
+            return service;
+        }
     }
 }
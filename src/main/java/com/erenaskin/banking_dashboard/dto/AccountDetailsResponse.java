@@ -1,6 +1,5 @@
 package com.erenaskin.banking_dashboard.dto;
 
-import com.erenaskin.banking_dashboard.entity.Transaction;
 import lombok.Builder;
 
 import java.math.BigDecimal;
@@ -11,5 +10,6 @@ public record AccountDetailsResponse(
         String iban,
         String currency,
         BigDecimal balance,
-        List<TransactionResponse> transactions
+        List<TransactionResponse> transactions,
+        String nextCursor
 ) {}
@@ -0,0 +1,17 @@
+package com.erenaskin.banking_dashboard.dto;
+
+import com.erenaskin.banking_dashboard.entity.Currency;
+
+import java.math.BigDecimal;
+
+/**
+ * Account header for read paths, with the owner's id taken from the foreign key so the user
+ * row is never touched.
+ */
+public record AccountSummary(
+        Long id,
+        String iban,
+        Currency currency,
+        BigDecimal balance,
+        Long userId
+) {}
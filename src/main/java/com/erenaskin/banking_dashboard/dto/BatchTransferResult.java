@@ -0,0 +1,19 @@
+package com.erenaskin.banking_dashboard.dto;
+
+public record BatchTransferResult(
+        int index,
+        String status,
+        String message
+) {
+    public static final String SUCCESS = "SUCCESS";
+    public static final String FAILED = "FAILED";
+    public static final String REJECTED = "REJECTED";
+
+    public static BatchTransferResult success(int index) {
+        return new BatchTransferResult(index, SUCCESS, null);
+    }
+
+    public static BatchTransferResult failed(int index, String message) {
+        return new BatchTransferResult(index, FAILED, message);
+    }
+}
@@ -0,0 +1,10 @@
+package com.erenaskin.banking_dashboard.dto;
+
+import java.math.BigDecimal;
+
+public record MonthlySummaryResponse(
+        String month,
+        BigDecimal inflow,
+        BigDecimal outflow,
+        long transactionCount
+) {}
@@ -0,0 +1,12 @@
+package com.erenaskin.banking_dashboard.dto;
+
+import com.erenaskin.banking_dashboard.entity.Currency;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+public record PortfolioTotalResponse(
+        Currency currency,
+        BigDecimal total,
+        Instant ratesAsOf
+) {}
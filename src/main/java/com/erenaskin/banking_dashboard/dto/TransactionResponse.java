@@ -13,5 +13,13 @@ public class TransactionResponse {
     private String senderIban;
     private String receiverIban;
     private BigDecimal amount;
+    // Amount credited to the receiver in its own currency; null when no conversion took place.
+    private BigDecimal receivedAmount;
     private LocalDateTime timestamp;
+    private BigDecimal senderBalanceAfter;
+    private BigDecimal receiverBalanceAfter;
+
+    public TransactionResponse(String senderIban, String receiverIban, BigDecimal amount, LocalDateTime timestamp) {
+        this(senderIban, receiverIban, amount, null, timestamp, null, null);
+    }
 }
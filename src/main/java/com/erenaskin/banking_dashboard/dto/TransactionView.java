@@ -0,0 +1,24 @@
+package com.erenaskin.banking_dashboard.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Read-only transaction row selected by a constructor expression: the columns a
+ * {@link TransactionResponse} needs plus the id for keyset paging. Never a managed entity.
+ */
+public record TransactionView(
+        Long id,
+        String senderIban,
+        String receiverIban,
+        BigDecimal amount,
+        BigDecimal receivedAmount,
+        LocalDateTime timestamp,
+        BigDecimal senderBalanceAfter,
+        BigDecimal receiverBalanceAfter
+) {
+    public TransactionResponse toResponse() {
+        return new TransactionResponse(senderIban, receiverIban, amount, receivedAmount, timestamp,
+                senderBalanceAfter, receiverBalanceAfter);
+    }
+}
@@ -30,7 +30,11 @@ public class Account {
     @Column(nullable = false)
     private LocalDateTime createdAt;
 
-    @ManyToOne(optional = false)
+    @Version
+    @Column(nullable = false, columnDefinition = "bigint default 0")
+    private Long version;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
     @JoinColumn(name = "user_id")
     private User user;
 }
\ No newline at end of file
@@ -0,0 +1,51 @@
+package com.erenaskin.banking_dashboard.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Running inflow/outflow per account, calendar month and transaction type. Rows are upserted by
+ * {@code MonthlyTotalsWriter} in the same transaction as the ledger write they summarise.
+ */
+@Entity
+@Table(name = "account_monthly_totals")
+@IdClass(AccountMonthlyTotal.Key.class)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AccountMonthlyTotal {
+
+    @Id
+    private Long accountId;
+
+    @Id
+    private LocalDate month;
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    private TransactionType type;
+
+    @Column(nullable = false)
+    private BigDecimal inflow;
+
+    @Column(nullable = false)
+    private BigDecimal outflow;
+
+    @Column(nullable = false)
+    private long txCount;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private Long accountId;
+        private LocalDate month;
+        private TransactionType type;
+    }
+}
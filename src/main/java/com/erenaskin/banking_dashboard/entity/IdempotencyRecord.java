@@ -0,0 +1,40 @@
+package com.erenaskin.banking_dashboard.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+@Entity
+@Table(name = "idempotency_keys", indexes = {
+        @Index(name = "idx_idempotency_keys_expires_at", columnList = "expires_at")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class IdempotencyRecord {
+
+    // "<userId>:<client key>", so keys of different users never collide.
+    @Id
+    private String id;
+
+    @Column(nullable = false, length = 64)
+    private String fingerprint;
+
+    // Null while the first request is still executing.
+    private Integer status;
+
+    @Column(columnDefinition = "text")
+    private String body;
+
+    @Column(nullable = false)
+    private Instant createdAt;
+
+    // Start of the current execution; an unfinished claim older than the lease may be taken over.
+    private Instant claimedAt;
+
+    @Column(nullable = false)
+    private Instant expiresAt;
+}
@@ -0,0 +1,43 @@
+package com.erenaskin.banking_dashboard.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "outbox_events")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OutboxEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long transactionId;
+
+    private Long accountId;
+
+    @Enumerated(EnumType.STRING)
+    private TransactionType type;
+
+    private String senderIban;
+    private String receiverIban;
+
+    private BigDecimal amount;
+    // Amount credited to the receiver in its own currency; null when no conversion took place.
+    private BigDecimal receivedAmount;
+    private LocalDateTime occurredAt;
+
+    // Failed deliveries so far; the relay parks the event once it reaches outbox.relay.max-attempts.
+    @Column(columnDefinition = "integer not null default 0")
+    private int attempts;
+
+    private LocalDateTime parkedAt;
+}
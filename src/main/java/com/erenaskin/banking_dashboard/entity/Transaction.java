@@ -7,7 +7,11 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "transactions")
+@Table(name = "transactions", indexes = {
+        @Index(name = "idx_transactions_sender_ts", columnList = "sender_iban, timestamp, id"),
+        @Index(name = "idx_transactions_receiver_ts", columnList = "receiver_iban, timestamp, id"),
+        @Index(name = "idx_transactions_account_ts", columnList = "account_id, timestamp, id")
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -28,7 +32,14 @@ public class Transaction {
     private BigDecimal amount;
     private LocalDateTime timestamp;
 
-    @ManyToOne
+    // Amount credited to the receiver in its own currency; null when no conversion took place.
+    private BigDecimal receivedAmount;
+
+    // Balances of the sender/receiver account right after this row was applied.
+    private BigDecimal senderBalanceAfter;
+    private BigDecimal receiverBalanceAfter;
+
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "account_id")
     private Account account;
 }
@@ -23,5 +23,8 @@ public class User {
 
     @Enumerated(EnumType.STRING)
     private Role role;
+
+    @Column(nullable = false, columnDefinition = "integer default 0")
+    private int tokenEpoch;
 }
 
@@ -0,0 +1,7 @@
+package com.erenaskin.banking_dashboard.exception;
+
+public class IdempotencyConflictException extends RuntimeException {
+    public IdempotencyConflictException(String message) {
+        super(message);
+    }
+}
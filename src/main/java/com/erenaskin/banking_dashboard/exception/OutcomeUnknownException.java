@@ -0,0 +1,11 @@
+package com.erenaskin.banking_dashboard.exception;
+
+/**
+ * The write was handed off but did not report back in time, so it may still commit. Unlike
+ * {@link ServiceBusyException} the request must not be treated as not having happened.
+ */
+public class OutcomeUnknownException extends RuntimeException {
+    public OutcomeUnknownException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.erenaskin.banking_dashboard.exception;
+
+public class ServiceBusyException extends RuntimeException {
+    public ServiceBusyException(String message) {
+        super(message);
+    }
+}
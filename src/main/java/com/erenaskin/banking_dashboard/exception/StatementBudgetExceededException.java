@@ -0,0 +1,7 @@
+package com.erenaskin.banking_dashboard.exception;
+
+public class StatementBudgetExceededException extends RuntimeException {
+    public StatementBudgetExceededException(String message) {
+        super(message);
+    }
+}
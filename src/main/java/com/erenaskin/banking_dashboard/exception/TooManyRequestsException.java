@@ -0,0 +1,7 @@
+package com.erenaskin.banking_dashboard.exception;
+
+public class TooManyRequestsException extends RuntimeException {
+    public TooManyRequestsException(String message) {
+        super(message);
+    }
+}
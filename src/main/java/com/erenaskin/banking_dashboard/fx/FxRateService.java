@@ -0,0 +1,80 @@
+package com.erenaskin.banking_dashboard.fx;
+
+import com.erenaskin.banking_dashboard.entity.Currency;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Holds the current {@link FxRateSnapshot}. The rate file is re-read on a fixed delay and a new
+ * snapshot is swapped in atomically; readers never see a partially updated matrix, and a bad
+ * file keeps the previous snapshot in place.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class FxRateService {
+
+    private final ResourceLoader resourceLoader;
+
+    @Value("${fx.rates.location:classpath:fx-rates.properties}")
+    private String location;
+
+    private final AtomicReference<FxRateSnapshot> snapshot = new AtomicReference<>();
+
+    @PostConstruct
+    public void init() throws IOException {
+        snapshot.set(load());
+    }
+
+    @Scheduled(fixedDelayString = "${fx.rates.refresh-ms:60000}", initialDelayString = "${fx.rates.refresh-ms:60000}")
+    public void refresh() {
+        try {
+            snapshot.set(load());
+        } catch (IOException | RuntimeException e) {
+            log.error("FX rate refresh from {} failed, keeping rates loaded at {}: {}",
+                    location, snapshot.get().loadedAt(), e.getMessage());
+        }
+    }
+
+    public FxRateSnapshot current() {
+        return snapshot.get();
+    }
+
+    public BigDecimal convert(BigDecimal amount, Currency from, Currency to) {
+        return snapshot.get().convert(amount, from, to);
+    }
+
+    private FxRateSnapshot load() throws IOException {
+        Resource resource = resourceLoader.getResource(location);
+        Properties properties = new Properties();
+        try (InputStream in = resource.getInputStream()) {
+            properties.load(in);
+        }
+
+        Map<Currency, BigDecimal> unitsPerBase = new EnumMap<>(Currency.class);
+        for (Currency currency : Currency.values()) {
+            String value = properties.getProperty(currency.name());
+            if (value != null) {
+                unitsPerBase.put(currency, new BigDecimal(value.trim()));
+            }
+        }
+        FxRateSnapshot loaded = FxRateSnapshot.of(unitsPerBase, Instant.now());
+        log.debug("Loaded FX rates from {}: {}", location, unitsPerBase);
+        return loaded;
+    }
+}
@@ -0,0 +1,63 @@
+package com.erenaskin.banking_dashboard.fx;
+
+import com.erenaskin.banking_dashboard.entity.Currency;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * Immutable cross-rate matrix for all {@link Currency} pairs, derived once from rates quoted
+ * against a common base. Lookups are two array reads; conversion is one multiply and one
+ * rescale.
+ */
+public final class FxRateSnapshot {
+
+    public static final int MONEY_SCALE = 2;
+
+    private static final Currency[] CURRENCIES = Currency.values();
+
+    private final BigDecimal[][] rates;
+    private final Instant loadedAt;
+
+    private FxRateSnapshot(BigDecimal[][] rates, Instant loadedAt) {
+        this.rates = rates;
+        this.loadedAt = loadedAt;
+    }
+
+    /**
+     * @param unitsPerBase how many units of each currency one unit of the base currency buys
+     */
+    public static FxRateSnapshot of(Map<Currency, BigDecimal> unitsPerBase, Instant loadedAt) {
+        BigDecimal[][] rates = new BigDecimal[CURRENCIES.length][CURRENCIES.length];
+        for (Currency from : CURRENCIES) {
+            BigDecimal fromRate = unitsPerBase.get(from);
+            if (fromRate == null || fromRate.signum() <= 0) {
+                throw new IllegalArgumentException("Missing or invalid FX rate for " + from);
+            }
+            for (Currency to : CURRENCIES) {
+                rates[from.ordinal()][to.ordinal()] = from == to
+                        ? BigDecimal.ONE
+                        : unitsPerBase.get(to).divide(fromRate, MathContext.DECIMAL64);
+            }
+        }
+        return new FxRateSnapshot(rates, loadedAt);
+    }
+
+    public BigDecimal rate(Currency from, Currency to) {
+        return rates[from.ordinal()][to.ordinal()];
+    }
+
+    public BigDecimal convert(BigDecimal amount, Currency from, Currency to) {
+        if (from == to) {
+            return amount;
+        }
+        return amount.multiply(rates[from.ordinal()][to.ordinal()]).setScale(MONEY_SCALE, RoundingMode.HALF_EVEN);
+    }
+
+    public Instant loadedAt() {
+        return loadedAt;
+    }
+}
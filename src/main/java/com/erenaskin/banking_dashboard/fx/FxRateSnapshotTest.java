@@ -0,0 +1,36 @@
+package com.erenaskin.banking_dashboard.fx;
+
+import com.erenaskin.banking_dashboard.entity.Currency;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FxRateSnapshotTest {
+
+    private final FxRateSnapshot snapshot = FxRateSnapshot.of(Map.of(
+            Currency.USD, new BigDecimal("1"),
+            Currency.EUR, new BigDecimal("0.92"),
+            Currency.TRY, new BigDecimal("32.50")), Instant.now());
+
+    @Test
+    void convert_ShouldUseCrossRate() {
+        assertEquals(new BigDecimal("3532.61"), snapshot.convert(new BigDecimal("100.00"), Currency.EUR, Currency.TRY));
+        assertEquals(new BigDecimal("92.00"), snapshot.convert(new BigDecimal("100.00"), Currency.USD, Currency.EUR));
+    }
+
+    @Test
+    void convert_ShouldReturnSameInstance_WhenCurrenciesMatch() {
+        BigDecimal amount = new BigDecimal("10.00");
+        assertSame(amount, snapshot.convert(amount, Currency.TRY, Currency.TRY));
+    }
+
+    @Test
+    void of_ShouldRejectMissingRate() {
+        assertThrows(IllegalArgumentException.class,
+                () -> FxRateSnapshot.of(Map.of(Currency.USD, BigDecimal.ONE), Instant.now()));
+    }
+}
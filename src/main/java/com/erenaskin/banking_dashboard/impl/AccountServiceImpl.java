@@ -1,40 +1,72 @@
 package com.erenaskin.banking_dashboard.impl;
 
+import com.erenaskin.banking_dashboard.cache.IbanResolver;
 import com.erenaskin.banking_dashboard.dto.*;
 import com.erenaskin.banking_dashboard.entity.*;
+import com.erenaskin.banking_dashboard.fx.FxRateService;
+import com.erenaskin.banking_dashboard.fx.FxRateSnapshot;
+import com.erenaskin.banking_dashboard.ledger.AccountWriteExecutor;
+import com.erenaskin.banking_dashboard.ledger.LedgerRecorder;
+import com.erenaskin.banking_dashboard.ledger.TransferCoordinator;
 import com.erenaskin.banking_dashboard.mapper.*;
 import com.erenaskin.banking_dashboard.repository.*;
+import com.erenaskin.banking_dashboard.security.CurrentUserProvider;
 import com.erenaskin.banking_dashboard.service.AccountService;
+import com.erenaskin.banking_dashboard.util.IbanGenerator;
+import com.erenaskin.banking_dashboard.util.TransactionCursor;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
-import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 @Service
 @RequiredArgsConstructor
+@Timed(value = "banking.service", histogram = true)
 public class AccountServiceImpl implements AccountService {
 
     private final AccountRepository accountRepository;
-    private final UserRepository userRepository;
     private final TransactionRepository transactionRepository;
+    private final AccountMonthlyTotalRepository monthlyTotalRepository;
+    private final IbanResolver ibanResolver;
+    private final IbanGenerator ibanGenerator;
+    private final CurrentUserProvider currentUserProvider;
 
     private final AccountMapper accountMapper;
-    private final TransactionMapper transactionMapper;
+
+    private final AccountWriteExecutor accountWriteExecutor;
+    private final TransferCoordinator transferCoordinator;
+    private final LedgerRecorder ledgerRecorder;
+    private final FxRateService fxRateService;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${pagination.default-size:50}")
+    private int defaultPageSize;
+
+    @Value("${pagination.max-size:200}")
+    private int maxPageSize;
+
+    @Value("${summary.max-months:120}")
+    private int maxSummaryMonths;
 
     @Override
     public void createAccount(AccountRequest request) {
-        String email = SecurityContextHolder.getContext().getAuthentication().getName();
-        User user = userRepository.findByEmail(email).orElseThrow();
-
         Account account = Account.builder()
-                .iban(generateIban())
+                .iban(ibanGenerator.generateIban())
                 .balance(BigDecimal.ZERO)
                 .currency(Currency.valueOf(request.currency()))
                 .createdAt(LocalDateTime.now())
-                .user(user)
+                .user(currentUserProvider.currentUserReference())
                 .build();
 
         accountRepository.save(account);
@@ -42,24 +74,30 @@ public class AccountServiceImpl implements AccountService {
 
     @Override
     public List<AccountResponse> getUserAccounts() {
-        String email = SecurityContextHolder.getContext().getAuthentication().getName();
-        User user = userRepository.findByEmail(email).orElseThrow();
-
-        return accountRepository.findByUser(user).stream()
+        return accountRepository.findByUserId(currentUserProvider.currentUserId()).stream()
                 .map(accountMapper::toResponse)
                 .toList();
     }
 
+    @Override
+    public PortfolioTotalResponse getPortfolioTotal(Currency in) {
+        FxRateSnapshot rates = fxRateService.current();
+        BigDecimal total = BigDecimal.ZERO;
+        for (AccountRepository.CurrencyTotal row : accountRepository.sumBalancesByCurrency(currentUserProvider.currentUserId())) {
+            total = total.add(rates.convert(row.getTotal(), row.getCurrency(), in));
+        }
+        return new PortfolioTotalResponse(in, total.setScale(FxRateSnapshot.MONEY_SCALE, RoundingMode.HALF_EVEN),
+                rates.loadedAt());
+    }
+
     @Override
     public Currency getCurrencyByIban(String iban) {
-        String email = SecurityContextHolder.getContext().getAuthentication().getName();
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new IllegalStateException("User not found"));
+        Long userId = currentUserProvider.currentUserId();
 
-        Account account = accountRepository.findByIban(iban)
+        Account account = ibanResolver.resolve(iban)
                 .orElseThrow(() -> new IllegalArgumentException("Account not found: " + iban));
 
-        if (!account.getUser().getId().equals(user.getId())) {
+        if (!account.getUser().getId().equals(userId)) {
             throw new SecurityException("You don't have access to this account");
         }
 
@@ -67,42 +105,80 @@ public class AccountServiceImpl implements AccountService {
     }
 
     @Override
-    public AccountDetailsResponse getAccountDetails(String iban) {
-        String email = SecurityContextHolder.getContext().getAuthentication().getName();
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new IllegalStateException("User not found"));
+    public AccountDetailsResponse getAccountDetails(String iban, String cursor, Integer size) {
+        Long userId = currentUserProvider.currentUserId();
 
-        Account account = accountRepository.findByIban(iban)
-                .orElseThrow(() -> new IllegalArgumentException("Account not found: " + iban));
+        AccountSummary account = ibanResolver.resolveId(iban)
+                .flatMap(accountRepository::findSummaryById)
+                .orElseThrow(() -> {
+                    ibanResolver.evict(iban);
+                    return new IllegalArgumentException("Account not found: " + iban);
+                });
 
-        if (!account.getUser().getId().equals(user.getId())) {
+        if (!account.userId().equals(userId)) {
             throw new SecurityException("You don't have access to this account");
         }
 
-        List<Transaction> transactions = transactionRepository.findAllByAccount_IbanOrderByTimestampDesc(iban);
+        TransactionCursor after = TransactionCursor.decode(cursor);
+        int limit = pageSize(size);
+        List<TransactionView> transactions = transactionRepository.findByAccountBefore(
+                account.id(), after.timestamp(), after.id(), PageRequest.of(0, limit + 1));
+
+        boolean hasMore = transactions.size() > limit;
+        List<TransactionView> page = hasMore ? transactions.subList(0, limit) : transactions;
 
-        List<TransactionResponse> transactionResponses = transactions.stream()
-                .map(transactionMapper::toResponse)
+        List<TransactionResponse> transactionResponses = page.stream()
+                .map(TransactionView::toResponse)
                 .toList();
 
         return AccountDetailsResponse.builder()
-                .iban(account.getIban())
-                .currency(account.getCurrency().toString())
-                .balance(account.getBalance())
+                .iban(account.iban())
+                .currency(account.currency().toString())
+                .balance(account.balance())
                 .transactions(transactionResponses)
+                .nextCursor(hasMore ? TransactionCursor.of(page.get(page.size() - 1)).encode() : null)
                 .build();
     }
 
+    @Override
+    public List<MonthlySummaryResponse> getMonthlySummary(String iban, Integer months) {
+        Long userId = currentUserProvider.currentUserId();
+
+        Long accountId = ibanResolver.resolve(iban)
+                .filter(account -> account.getUser().getId().equals(userId))
+                .map(Account::getId)
+                .orElseThrow(() -> new IllegalArgumentException("Account not found: " + iban));
+
+        int count = months == null ? 12 : Math.max(1, Math.min(months, maxSummaryMonths));
+        YearMonth current = YearMonth.now();
+        YearMonth first = current.minusMonths(count - 1);
+
+        Map<YearMonth, MonthlySummaryResponse> byMonth = new HashMap<>();
+        for (AccountMonthlyTotal total : monthlyTotalRepository
+                .findByAccountIdAndMonthGreaterThanEqualOrderByMonthDesc(accountId, first.atDay(1))) {
+            YearMonth month = YearMonth.from(total.getMonth());
+            byMonth.merge(month,
+                    new MonthlySummaryResponse(month.toString(), total.getInflow(), total.getOutflow(), total.getTxCount()),
+                    (a, b) -> new MonthlySummaryResponse(a.month(), a.inflow().add(b.inflow()),
+                            a.outflow().add(b.outflow()), a.transactionCount() + b.transactionCount()));
+        }
+
+        List<MonthlySummaryResponse> summary = new ArrayList<>(count);
+        for (YearMonth month = current; !month.isBefore(first); month = month.minusMonths(1)) {
+            summary.add(byMonth.getOrDefault(month,
+                    new MonthlySummaryResponse(month.toString(), BigDecimal.ZERO, BigDecimal.ZERO, 0)));
+        }
+        return summary;
+    }
+
     @Override
     public void createTransaction(String iban, TransferRequest request) {
-        String email = SecurityContextHolder.getContext().getAuthentication().getName();
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new IllegalStateException("User not found"));
+        Long userId = currentUserProvider.currentUserId();
 
-        Account senderAccount = accountRepository.findByIban(iban)
+        Account senderAccount = ibanResolver.resolve(iban)
                 .orElseThrow(() -> new IllegalArgumentException("Account not found: " + iban));
 
-        if (!senderAccount.getUser().getId().equals(user.getId())) {
+        if (!senderAccount.getUser().getId().equals(userId)) {
             throw new SecurityException("You don't have access to this account");
         }
 
@@ -110,31 +186,39 @@ public class AccountServiceImpl implements AccountService {
         TransactionType type = TransactionType.valueOf(request.getType());
 
         if (type == TransactionType.DEPOSIT) {
-            senderAccount.setBalance(senderAccount.getBalance().add(amount));
-            accountRepository.save(senderAccount);
-
-            transactionRepository.save(Transaction.builder()
-                    .type(type)
-                    .receiverIban(iban)
-                    .amount(amount)
-                    .timestamp(LocalDateTime.now())
-                    .account(senderAccount)
-                    .build());
+            accountWriteExecutor.run(iban, () -> transferCoordinator.withRetry(() -> transactionTemplate.execute(status -> {
+                Account account = loadForUpdate(iban);
+                account.setBalance(account.getBalance().add(amount));
+                accountRepository.save(account);
+
+                return ledgerRecorder.record(Transaction.builder()
+                        .type(type)
+                        .receiverIban(iban)
+                        .amount(amount)
+                        .timestamp(LocalDateTime.now())
+                        .receiverBalanceAfter(account.getBalance())
+                        .account(account)
+                        .build());
+            })));
 
         } else if (type == TransactionType.WITHDRAW) {
-            if (senderAccount.getBalance().compareTo(amount) < 0) {
-                throw new IllegalArgumentException("Insufficient balance");
-            }
-            senderAccount.setBalance(senderAccount.getBalance().subtract(amount));
-            accountRepository.save(senderAccount);
-
-            transactionRepository.save(Transaction.builder()
-                    .type(type)
-                    .senderIban(iban)
-                    .amount(amount)
-                    .timestamp(LocalDateTime.now())
-                    .account(senderAccount)
-                    .build());
+            accountWriteExecutor.run(iban, () -> transferCoordinator.withRetry(() -> transactionTemplate.execute(status -> {
+                Account account = loadForUpdate(iban);
+                if (account.getBalance().compareTo(amount) < 0) {
+                    throw new IllegalArgumentException("Insufficient balance");
+                }
+                account.setBalance(account.getBalance().subtract(amount));
+                accountRepository.save(account);
+
+                return ledgerRecorder.record(Transaction.builder()
+                        .type(type)
+                        .senderIban(iban)
+                        .amount(amount)
+                        .timestamp(LocalDateTime.now())
+                        .senderBalanceAfter(account.getBalance())
+                        .account(account)
+                        .build());
+            })));
 
         } else if (type == TransactionType.TRANSFER) {
             if (request.getReceiverIban() == null || request.getReceiverIban().isBlank()) {
@@ -143,42 +227,50 @@ public class AccountServiceImpl implements AccountService {
             if (senderAccount.getBalance().compareTo(amount) < 0) {
                 throw new IllegalArgumentException("Insufficient balance");
             }
-            Account receiverAccount = accountRepository.findByIban(request.getReceiverIban())
-                    .orElseThrow(() -> new IllegalArgumentException("Receiver account not found: " + request.getReceiverIban()));
-
-            senderAccount.setBalance(senderAccount.getBalance().subtract(amount));
-            receiverAccount.setBalance(receiverAccount.getBalance().add(amount));
-
-            accountRepository.save(senderAccount);
-            accountRepository.save(receiverAccount);
-
-            transactionRepository.save(Transaction.builder()
-                    .type(type)
-                    .senderIban(iban)
-                    .receiverIban(request.getReceiverIban())
-                    .amount(amount)
-                    .timestamp(LocalDateTime.now())
-                    .account(senderAccount)
-                    .build());
+            String receiverIban = request.getReceiverIban();
+            Account receiverAccount = ibanResolver.resolve(receiverIban)
+                    .orElseThrow(() -> new IllegalArgumentException("Receiver account not found: " + receiverIban));
+
+            accountWriteExecutor.run(iban, () -> transferCoordinator.transfer(
+                    senderAccount.getId(), receiverAccount.getId(), (sender, receiver) -> {
+                        if (sender.getBalance().compareTo(amount) < 0) {
+                            throw new IllegalArgumentException("Insufficient balance");
+                        }
+                        BigDecimal credited = fxRateService.convert(amount, sender.getCurrency(), receiver.getCurrency());
+                        sender.setBalance(sender.getBalance().subtract(amount));
+                        receiver.setBalance(receiver.getBalance().add(credited));
+
+                        accountRepository.save(sender);
+                        accountRepository.save(receiver);
+
+                        return ledgerRecorder.record(Transaction.builder()
+                                .type(type)
+                                .senderIban(iban)
+                                .receiverIban(receiverIban)
+                                .amount(amount)
+                                .receivedAmount(sender.getCurrency() == receiver.getCurrency() ? null : credited)
+                                .timestamp(LocalDateTime.now())
+                                .senderBalanceAfter(sender.getBalance())
+                                .receiverBalanceAfter(receiver.getBalance())
+                                .account(sender)
+                                .build());
+                    }));
 
         } else {
             throw new IllegalArgumentException("Invalid transaction type");
         }
     }
 
-    private String generateIban() {
-        StringBuilder iban = new StringBuilder("TR");
-        iban.append(randomDigits(2));
-        iban.append("00061");
-        iban.append(randomDigits(16));
-        return iban.toString();
+    private int pageSize(Integer requested) {
+        if (requested == null) {
+            return Math.max(1, defaultPageSize);
+        }
+        return Math.max(1, Math.min(requested, maxPageSize));
     }
 
-    private String randomDigits(int length) {
-        StringBuilder sb = new StringBuilder();
-        for (int i = 0; i < length; i++) {
-            sb.append((int) (Math.random() * 10));
-        }
-        return sb.toString();
+    private Account loadForUpdate(String iban) {
+        return ibanResolver.resolveId(iban)
+                .flatMap(accountRepository::findByIdForUpdate)
+                .orElseThrow(() -> new IllegalArgumentException("Account not found: " + iban));
     }
 }
\ No newline at end of file
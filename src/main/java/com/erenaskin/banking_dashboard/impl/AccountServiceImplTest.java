@@ -6,6 +6,8 @@ import com.erenaskin.banking_dashboard.entity.Currency;
 import com.erenaskin.banking_dashboard.mapper.AccountMapper;
 import com.erenaskin.banking_dashboard.mapper.TransactionMapper;
 import com.erenaskin.banking_dashboard.repository.*;
+import com.erenaskin.banking_dashboard.security.CurrentUserProvider;
+import com.erenaskin.banking_dashboard.util.IbanGenerator;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -35,6 +37,11 @@ class AccountServiceImplTest {
     @Mock
     private TransactionMapper transactionMapper;
 
+    @Mock
+    private CurrentUserProvider currentUserProvider;
+    @Mock
+    private IbanGenerator ibanGenerator;
+
     @Mock
     private SecurityContext securityContext;
     @Mock
@@ -48,15 +55,18 @@ class AccountServiceImplTest {
 
     @BeforeEach
     void setUp() {
+        // Shared stubs; not every test touches all of them, hence lenient.
         // SecurityContextHolder mocklama
-        when(securityContext.getAuthentication()).thenReturn(authentication);
+        lenient().when(securityContext.getAuthentication()).thenReturn(authentication);
         SecurityContextHolder.setContext(securityContext);
-        when(authentication.getName()).thenReturn(USER_EMAIL);
+        lenient().when(authentication.getName()).thenReturn(USER_EMAIL);
 
         // User mock objesi
         user = User.builder().id(1L).email(USER_EMAIL).build();
 
-        when(userRepository.findByEmail(USER_EMAIL)).thenReturn(Optional.of(user));
+        lenient().when(currentUserProvider.currentUserId()).thenReturn(user.getId());
+        lenient().when(currentUserProvider.currentUserReference()).thenReturn(user);
+        lenient().when(ibanGenerator.generateIban()).thenReturn("TR330006100519786457841326");
     }
 
     @Test
@@ -85,7 +95,7 @@ class AccountServiceImplTest {
         Account acc2 = Account.builder().iban("TR456").user(user).build();
         List<Account> accounts = List.of(acc1, acc2);
 
-        when(accountRepository.findByUser(user)).thenReturn(accounts);
+        when(accountRepository.findByUserId(user.getId())).thenReturn(accounts);
         when(accountMapper.toResponse(acc1)).thenReturn(new AccountResponse("TR123", BigDecimal.ZERO, Currency.TRY));
         when(accountMapper.toResponse(acc2)).thenReturn(new AccountResponse("TR456", BigDecimal.ZERO, Currency.USD));
 
@@ -96,7 +106,7 @@ class AccountServiceImplTest {
         assertEquals("TR123", responses.get(0).iban());
         assertEquals("TR456", responses.get(1).iban());
 
-        verify(accountRepository, times(1)).findByUser(user);
+        verify(accountRepository, times(1)).findByUserId(user.getId());
         verify(accountMapper, times(2)).toResponse(any());
     }
 
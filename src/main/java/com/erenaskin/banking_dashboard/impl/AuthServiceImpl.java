@@ -6,35 +6,50 @@ import com.erenaskin.banking_dashboard.dto.RegisterRequest;
 import com.erenaskin.banking_dashboard.entity.Role;
 import com.erenaskin.banking_dashboard.entity.User;
 import com.erenaskin.banking_dashboard.exception.AuthenticationFailedException;
+import com.erenaskin.banking_dashboard.exception.TooManyRequestsException;
 import com.erenaskin.banking_dashboard.exception.UserAlreadyExistsException;
 import com.erenaskin.banking_dashboard.mapper.UserMapper;
 import com.erenaskin.banking_dashboard.repository.UserRepository;
+import com.erenaskin.banking_dashboard.security.AuthThrottle;
+import com.erenaskin.banking_dashboard.security.CurrentUserProvider;
 import com.erenaskin.banking_dashboard.security.JwtUtil;
+import com.erenaskin.banking_dashboard.security.PasswordHashingExecutor;
+import com.erenaskin.banking_dashboard.security.TokenRevocationRegistry;
+import com.erenaskin.banking_dashboard.security.VerifiedToken;
 import com.erenaskin.banking_dashboard.service.AuthService;
+import io.jsonwebtoken.JwtException;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
 @Service
 @RequiredArgsConstructor
+@Timed(value = "banking.service", histogram = true)
 public class AuthServiceImpl implements AuthService {
 
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
     private final JwtUtil jwtUtil;
     private final UserMapper userMapper;
+    private final TokenRevocationRegistry revocationRegistry;
+    private final PasswordHashingExecutor passwordHashingExecutor;
+    private final AuthThrottle authThrottle;
+    private final CurrentUserProvider currentUserProvider;
 
     @Override
     public AuthResponse register(RegisterRequest request) {
+        throttle(request.getEmail());
         if (userRepository.existsByEmail(request.getEmail())) {
             throw new UserAlreadyExistsException("Email already registered");
         }
 
         User user = userMapper.toEntity(request);
-        user.setPassword(passwordEncoder.encode(request.getPassword()));
+        user.setPassword(passwordHashingExecutor.execute(() -> passwordEncoder.encode(request.getPassword())));
         user.setRole(Role.USER);
 
         userRepository.save(user);
+        currentUserProvider.evict(user.getEmail());
 
         String token = jwtUtil.generateToken(user);
         return new AuthResponse(token);
@@ -42,14 +57,53 @@ public class AuthServiceImpl implements AuthService {
 
     @Override
     public AuthResponse login(LoginRequest request) {
+        throttle(request.getEmail());
         User user = userRepository.findByEmail(request.getEmail())
                 .orElseThrow(() -> new AuthenticationFailedException("Invalid email or password"));
 
-        if (!passwordEncoder.matches(request.getPassword(), user.getPassword())) {
-            throw new AuthenticationFailedException("Invalid email or password");
+        String upgradedHash = passwordHashingExecutor.execute(() -> {
+            if (!passwordEncoder.matches(request.getPassword(), user.getPassword())) {
+                throw new AuthenticationFailedException("Invalid email or password");
+            }
+            return passwordEncoder.upgradeEncoding(user.getPassword())
+                    ? passwordEncoder.encode(request.getPassword())
+                    : null;
+        });
+
+        if (upgradedHash != null) {
+            user.setPassword(upgradedHash);
+            userRepository.save(user);
+            currentUserProvider.evict(user.getEmail());
         }
 
         String token = jwtUtil.generateToken(user);
         return new AuthResponse(token);
     }
+
+    @Override
+    public void logout(String token, boolean allSessions) {
+        VerifiedToken verified;
+        try {
+            verified = jwtUtil.verify(token);
+        } catch (JwtException | IllegalArgumentException e) {
+            throw new AuthenticationFailedException("Invalid token");
+        }
+
+        revocationRegistry.revoke(verified);
+
+        if (allSessions) {
+            Long userId = verified.userId() != null
+                    ? verified.userId()
+                    : userRepository.findByEmail(verified.subject())
+                            .map(User::getId)
+                            .orElseThrow(() -> new AuthenticationFailedException("Invalid token"));
+            revocationRegistry.revokeAll(userId);
+        }
+    }
+
+    private void throttle(String email) {
+        if (!authThrottle.tryAcquireEmail(email)) {
+            throw new TooManyRequestsException("Too many attempts, try again later");
+        }
+    }
 }
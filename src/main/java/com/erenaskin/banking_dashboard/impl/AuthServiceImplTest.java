@@ -9,13 +9,17 @@ import com.erenaskin.banking_dashboard.exception.AuthenticationFailedException;
 import com.erenaskin.banking_dashboard.exception.UserAlreadyExistsException;
 import com.erenaskin.banking_dashboard.mapper.UserMapper;
 import com.erenaskin.banking_dashboard.repository.UserRepository;
+import com.erenaskin.banking_dashboard.security.AuthThrottle;
+import com.erenaskin.banking_dashboard.security.CurrentUserProvider;
 import com.erenaskin.banking_dashboard.security.JwtUtil;
+import com.erenaskin.banking_dashboard.security.PasswordHashingExecutor;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.*;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
 import java.util.Optional;
+import java.util.function.Supplier;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -30,14 +34,21 @@ class AuthServiceImplTest {
     private JwtUtil jwtUtil;
     @Mock
     private UserMapper userMapper;
-
     @Mock
+    private PasswordHashingExecutor passwordHashingExecutor;
+    @Mock
+    private AuthThrottle authThrottle;
+    @Mock
+    private CurrentUserProvider currentUserProvider;
+
     @InjectMocks
     private AuthServiceImpl authService;
 
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
+        when(passwordHashingExecutor.execute(any())).thenAnswer(invocation -> ((Supplier<?>) invocation.getArgument(0)).get());
+        when(authThrottle.tryAcquireEmail(any())).thenReturn(true);
     }
 
     @Test
@@ -72,6 +83,7 @@ class AuthServiceImplTest {
         assertEquals("encodedPass", userEntity.getPassword());
 
         verify(userRepository).save(userEntity);
+        verify(currentUserProvider).evict("newuser@example.com");
     }
 
     @Test
@@ -110,4 +122,22 @@ class AuthServiceImplTest {
         assertNotNull(response);
         assertEquals("jwt-token", response.getToken());
     }
+
+    @Test
+    void login_ShouldEvictCachedId_WhenHashIsUpgraded() {
+        LoginRequest request = new LoginRequest("user@example.com", "correctpass");
+        User user = new User();
+        user.setEmail(request.getEmail());
+        user.setPassword("oldHash");
+
+        when(userRepository.findByEmail(request.getEmail())).thenReturn(Optional.of(user));
+        when(passwordEncoder.matches(request.getPassword(), "oldHash")).thenReturn(true);
+        when(passwordEncoder.upgradeEncoding("oldHash")).thenReturn(true);
+        when(passwordEncoder.encode(request.getPassword())).thenReturn("newHash");
+
+        authService.login(request);
+
+        verify(userRepository).save(user);
+        verify(currentUserProvider).evict("user@example.com");
+    }
 }
@@ -0,0 +1,246 @@
+package com.erenaskin.banking_dashboard.impl;
+
+import com.erenaskin.banking_dashboard.exception.AccountNotFoundException;
+import com.erenaskin.banking_dashboard.exception.IdempotencyConflictException;
+import com.erenaskin.banking_dashboard.exception.InsufficientBalanceException;
+import com.erenaskin.banking_dashboard.exception.ServiceBusyException;
+import com.erenaskin.banking_dashboard.exception.TooManyRequestsException;
+import com.erenaskin.banking_dashboard.repository.IdempotencyRecordRepository;
+import com.erenaskin.banking_dashboard.security.CurrentUserProvider;
+import com.erenaskin.banking_dashboard.service.IdempotencyService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.HexFormat;
+import java.util.concurrent.*;
+import java.util.function.Supplier;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class IdempotencyServiceImpl implements IdempotencyService {
+
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private final IdempotencyRecordRepository idempotencyRecordRepository;
+    private final CurrentUserProvider currentUserProvider;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${idempotency.ttl-hours:24}")
+    private long ttlHours;
+
+    @Value("${idempotency.cache.max-size:10000}")
+    private long cacheMaxSize;
+
+    @Value("${idempotency.wait-timeout-ms:10000}")
+    private long waitTimeoutMs;
+
+    // Must outlast the slowest write (writer lane and pipeline timeouts plus retries).
+    @Value("${idempotency.lease-ms:300000}")
+    private long leaseMs;
+
+    @Value("${idempotency.sweep.batch-size:1000}")
+    private int sweepBatchSize;
+
+    private final ConcurrentHashMap<String, CompletableFuture<StoredResponse>> inFlight = new ConcurrentHashMap<>();
+
+    private Cache<String, StoredResponse> completed;
+
+    @PostConstruct
+    public void init() {
+        completed = Caffeine.newBuilder()
+                .maximumSize(cacheMaxSize)
+                .expireAfterWrite(Duration.ofHours(ttlHours))
+                .build();
+    }
+
+    @Override
+    public ResponseEntity<?> execute(String key, String operation, Object request, Supplier<ResponseEntity<?>> action) {
+        if (key == null || key.isBlank()) {
+            return action.get();
+        }
+        if (key.length() > 255) {
+            throw new IllegalArgumentException(HEADER + " must be at most 255 characters");
+        }
+
+        String id = currentUserProvider.currentUserId() + ":" + key;
+        String fingerprint = fingerprint(operation, request);
+
+        StoredResponse hot = completed.getIfPresent(id);
+        if (hot != null) {
+            return replay(hot, fingerprint);
+        }
+
+        CompletableFuture<StoredResponse> mine = new CompletableFuture<>();
+        CompletableFuture<StoredResponse> running = inFlight.putIfAbsent(id, mine);
+        if (running != null) {
+            return replay(await(running), fingerprint);
+        }
+
+        try {
+            Execution execution = runOnce(id, fingerprint, action);
+            mine.complete(execution.stored());
+            return execution.fresh() ? toResponse(execution.stored(), false) : replay(execution.stored(), fingerprint);
+        } catch (RuntimeException e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(id, mine);
+        }
+    }
+
+    private Execution runOnce(String id, String fingerprint, Supplier<ResponseEntity<?>> action) {
+        // Postgres keeps microseconds, and complete/release match the claim time exactly.
+        Instant now = Instant.now().truncatedTo(ChronoUnit.MICROS);
+        Integer claimed = transactionTemplate.execute(status -> idempotencyRecordRepository.claim(id, fingerprint,
+                now, now.plus(Duration.ofHours(ttlHours)), now.minusMillis(leaseMs)));
+
+        if (claimed == null || claimed == 0) {
+            StoredResponse stored = idempotencyRecordRepository.findById(id)
+                    .filter(record -> record.getStatus() != null)
+                    .map(record -> new StoredResponse(record.getFingerprint(), record.getStatus(), record.getBody()))
+                    .orElseThrow(() -> new IdempotencyConflictException(
+                            "A request with this " + HEADER + " is still in progress"));
+            completed.put(id, stored);
+            return new Execution(stored, false);
+        }
+
+        ResponseEntity<?> response;
+        try {
+            response = action.get();
+        } catch (RuntimeException e) {
+            if (rejectedBeforeWrite(e)) {
+                // Nothing was written, so the client may retry with the same key.
+                transactionTemplate.executeWithoutResult(status -> idempotencyRecordRepository.release(id, now));
+            } else {
+                // The write may still commit: keep the claim so a retry cannot apply it twice.
+                // Only once the lease runs out can the key be claimed again.
+                log.warn("Keeping idempotency claim {} after an unclear failure: {}", id, e.toString());
+            }
+            throw e;
+        }
+
+        StoredResponse stored = new StoredResponse(fingerprint, response.getStatusCode().value(), serialize(response.getBody()));
+        transactionTemplate.executeWithoutResult(status ->
+                idempotencyRecordRepository.complete(id, now, stored.status(), stored.body()));
+        completed.put(id, stored);
+        return new Execution(stored, true);
+    }
+
+    /**
+     * Failures that are raised before anything is written: validation and business rejections,
+     * load shedding that refused the work, and transactions that were rolled back. Timeouts,
+     * interrupted waits and unknown errors are not on this list.
+     */
+    static boolean rejectedBeforeWrite(RuntimeException e) {
+        return e instanceof IllegalArgumentException
+                || e instanceof SecurityException
+                || e instanceof AccountNotFoundException
+                || e instanceof InsufficientBalanceException
+                || e instanceof ServiceBusyException
+                || e instanceof TooManyRequestsException
+                || e instanceof IdempotencyConflictException
+                || e instanceof ConcurrencyFailureException;
+    }
+
+    private StoredResponse await(CompletableFuture<StoredResponse> running) {
+        try {
+            return running.get(waitTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IdempotencyConflictException("Interrupted while waiting for the original request");
+        } catch (TimeoutException e) {
+            throw new IdempotencyConflictException("A request with this " + HEADER + " is still in progress");
+        }
+    }
+
+    private ResponseEntity<?> replay(StoredResponse stored, String fingerprint) {
+        if (!stored.fingerprint().equals(fingerprint)) {
+            throw new IdempotencyConflictException(HEADER + " was already used for a different request");
+        }
+        return toResponse(stored, true);
+    }
+
+    private static ResponseEntity<?> toResponse(StoredResponse stored, boolean replayed) {
+        ResponseEntity.BodyBuilder builder = ResponseEntity.status(stored.status());
+        if (replayed) {
+            builder.header(REPLAYED_HEADER, "true");
+        }
+        if (stored.body() == null) {
+            return builder.build();
+        }
+        return builder.contentType(MediaType.APPLICATION_JSON).body(stored.body());
+    }
+
+    @Scheduled(fixedDelayString = "${idempotency.sweep.interval-ms:60000}")
+    public void sweepExpired() {
+        Instant now = Instant.now();
+        int total = 0;
+        int deleted;
+        do {
+            Integer count = transactionTemplate.execute(status ->
+                    idempotencyRecordRepository.deleteExpired(now, sweepBatchSize));
+            deleted = count == null ? 0 : count;
+            total += deleted;
+        } while (deleted == sweepBatchSize);
+
+        if (total > 0) {
+            log.debug("Swept {} expired idempotency keys", total);
+        }
+    }
+
+    private String serialize(Object body) {
+        if (body == null) {
+            return null;
+        }
+        try {
+            return objectMapper.writeValueAsString(body);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Response is not serializable", e);
+        }
+    }
+
+    private String fingerprint(String operation, Object request) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(operation.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) '\n');
+            digest.update(objectMapper.writeValueAsBytes(request));
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Request is not serializable", e);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private record StoredResponse(String fingerprint, int status, String body) {
+    }
+
+    private record Execution(StoredResponse stored, boolean fresh) {
+    }
+}
@@ -0,0 +1,163 @@
+package com.erenaskin.banking_dashboard.impl;
+
+import com.erenaskin.banking_dashboard.entity.IdempotencyRecord;
+import com.erenaskin.banking_dashboard.exception.IdempotencyConflictException;
+import com.erenaskin.banking_dashboard.exception.OutcomeUnknownException;
+import com.erenaskin.banking_dashboard.repository.IdempotencyRecordRepository;
+import com.erenaskin.banking_dashboard.security.CurrentUserProvider;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+
+class IdempotencyServiceImplTest {
+
+    private IdempotencyRecordRepository repository;
+    private IdempotencyServiceImpl idempotencyService;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        repository = mock(IdempotencyRecordRepository.class);
+        CurrentUserProvider currentUserProvider = mock(CurrentUserProvider.class);
+        when(currentUserProvider.currentUserId()).thenReturn(7L);
+
+        TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                ((TransactionCallback<Object>) invocation.getArgument(0)).doInTransaction(null));
+        doAnswer(invocation -> {
+            ((Consumer<TransactionStatus>) invocation.getArgument(0)).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+
+        idempotencyService = new IdempotencyServiceImpl(repository, currentUserProvider, new ObjectMapper(), transactionTemplate);
+        ReflectionTestUtils.setField(idempotencyService, "ttlHours", 24L);
+        ReflectionTestUtils.setField(idempotencyService, "cacheMaxSize", 100L);
+        ReflectionTestUtils.setField(idempotencyService, "waitTimeoutMs", 1000L);
+        ReflectionTestUtils.setField(idempotencyService, "leaseMs", 60000L);
+        idempotencyService.init();
+    }
+
+    @Test
+    void execute_ShouldRunActionOnceAndReplayRetries() {
+        when(repository.claim(eq("7:abc"), anyString(), any(Instant.class), any(Instant.class), any(Instant.class)))
+                .thenReturn(1);
+        AtomicInteger calls = new AtomicInteger();
+
+        ResponseEntity<?> first = idempotencyService.execute("abc", "POST /api/transactions", Map.of("amount", 10),
+                () -> {
+                    calls.incrementAndGet();
+                    return ResponseEntity.ok().build();
+                });
+        ResponseEntity<?> second = idempotencyService.execute("abc", "POST /api/transactions", Map.of("amount", 10),
+                () -> {
+                    calls.incrementAndGet();
+                    return ResponseEntity.ok().build();
+                });
+
+        assertEquals(1, calls.get());
+        assertEquals(200, first.getStatusCode().value());
+        assertNull(first.getHeaders().getFirst(IdempotencyServiceImpl.REPLAYED_HEADER));
+        assertEquals("true", second.getHeaders().getFirst(IdempotencyServiceImpl.REPLAYED_HEADER));
+        verify(repository).complete(eq("7:abc"), any(Instant.class), eq(200), isNull());
+    }
+
+    @Test
+    void execute_ShouldReject_WhenKeyIsReusedForDifferentRequest() {
+        when(repository.claim(anyString(), anyString(), any(Instant.class), any(Instant.class), any(Instant.class)))
+                .thenReturn(1);
+        idempotencyService.execute("abc", "POST /api/transactions", Map.of("amount", 10),
+                () -> ResponseEntity.ok().build());
+
+        assertThrows(IdempotencyConflictException.class, () -> idempotencyService.execute(
+                "abc", "POST /api/transactions", Map.of("amount", 20), () -> ResponseEntity.ok().build()));
+    }
+
+    @Test
+    void execute_ShouldReplayStoredResponse_WhenAnotherNodeCompletedTheKey() {
+        when(repository.claim(anyString(), anyString(), any(Instant.class), any(Instant.class), any(Instant.class)))
+                .thenReturn(1, 0);
+        idempotencyService.execute("first", "POST /api/transactions", Map.of("amount", 10),
+                () -> ResponseEntity.ok().build());
+        String fingerprint = captureFingerprint();
+
+        when(repository.findById("7:abc")).thenReturn(Optional.of(IdempotencyRecord.builder()
+                .id("7:abc").fingerprint(fingerprint).status(200).build()));
+
+        ResponseEntity<?> response = idempotencyService.execute("abc", "POST /api/transactions", Map.of("amount", 10),
+                () -> fail("Action must not run twice"));
+
+        assertEquals("true", response.getHeaders().getFirst(IdempotencyServiceImpl.REPLAYED_HEADER));
+    }
+
+    @Test
+    void execute_ShouldReleaseClaim_WhenActionFails() {
+        when(repository.claim(anyString(), anyString(), any(Instant.class), any(Instant.class), any(Instant.class)))
+                .thenReturn(1);
+
+        assertThrows(IllegalArgumentException.class, () -> idempotencyService.execute("abc", "POST /api/transactions",
+                Map.of("amount", 10), () -> {
+                    throw new IllegalArgumentException("Insufficient balance");
+                }));
+
+        verify(repository).release(eq("7:abc"), any(Instant.class));
+        verify(repository, never()).complete(anyString(), any(), anyInt(), any());
+    }
+
+    @Test
+    void execute_ShouldKeepClaim_WhenOutcomeIsUnknown() {
+        when(repository.claim(anyString(), anyString(), any(Instant.class), any(Instant.class), any(Instant.class)))
+                .thenReturn(1);
+
+        assertThrows(OutcomeUnknownException.class, () -> idempotencyService.execute("abc", "POST /api/transactions",
+                Map.of("amount", 10), () -> {
+                    throw new OutcomeUnknownException("Timed out waiting for account TR1");
+                }));
+        assertThrows(IllegalStateException.class, () -> idempotencyService.execute("def", "POST /api/transactions",
+                Map.of("amount", 10), () -> {
+                    throw new IllegalStateException("Interrupted while waiting for account TR1");
+                }));
+
+        verify(repository, never()).release(anyString(), any());
+        verify(repository, never()).complete(anyString(), any(), anyInt(), any());
+    }
+
+    @Test
+    void execute_ShouldClaimWithLease() {
+        when(repository.claim(anyString(), anyString(), any(Instant.class), any(Instant.class), any(Instant.class)))
+                .thenReturn(1);
+
+        idempotencyService.execute("abc", "POST /api/transactions", Map.of("amount", 10),
+                () -> ResponseEntity.ok().build());
+
+        ArgumentCaptor<Instant> now = ArgumentCaptor.forClass(Instant.class);
+        ArgumentCaptor<Instant> staleBefore = ArgumentCaptor.forClass(Instant.class);
+        verify(repository).claim(eq("7:abc"), anyString(), now.capture(), any(Instant.class), staleBefore.capture());
+        assertEquals(now.getValue().minusMillis(60000), staleBefore.getValue());
+        verify(repository).complete(eq("7:abc"), eq(now.getValue()), eq(200), isNull());
+    }
+
+    private String captureFingerprint() {
+        ArgumentCaptor<String> captor = ArgumentCaptor.forClass(String.class);
+        verify(repository).claim(eq("7:first"), captor.capture(), any(Instant.class), any(Instant.class),
+                any(Instant.class));
+        return captor.getValue();
+    }
+}
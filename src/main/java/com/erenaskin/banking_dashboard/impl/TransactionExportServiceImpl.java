@@ -0,0 +1,253 @@
+package com.erenaskin.banking_dashboard.impl;
+
+import com.erenaskin.banking_dashboard.cache.IbanResolver;
+import com.erenaskin.banking_dashboard.dto.ExportFormat;
+import com.erenaskin.banking_dashboard.entity.Account;
+import com.erenaskin.banking_dashboard.security.CurrentUserProvider;
+import com.erenaskin.banking_dashboard.service.TransactionExportService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.util.MinimalPrettyPrinter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.*;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.*;
+import java.time.LocalDateTime;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TransactionExportServiceImpl implements TransactionExportService {
+
+    // One keyset page of an account's history. Each branch is served in order by its own
+    // (iban, timestamp, id) index and Postgres merges the two; an "or" over both columns could
+    // only be answered by a bitmap scan and a sort. Self-transfers come from the sent branch.
+    private static final String EXPORT_PAGE = """
+            (select id, type, sender_iban, receiver_iban, amount, received_amount, timestamp
+             from transactions
+             where sender_iban = ?
+               and (timestamp, id) > (?, ?) and timestamp < ?
+             order by timestamp, id
+             limit ?)
+            union all
+            (select id, type, sender_iban, receiver_iban, amount, received_amount, timestamp
+             from transactions
+             where receiver_iban = ? and sender_iban is distinct from ?
+               and (timestamp, id) > (?, ?) and timestamp < ?
+             order by timestamp, id
+             limit ?)
+            order by timestamp, id
+            limit ?
+            """;
+
+    private static final LocalDateTime EARLIEST = LocalDateTime.of(1970, 1, 1, 0, 0);
+    private static final LocalDateTime LATEST = LocalDateTime.of(9999, 12, 31, 23, 59, 59);
+
+    private final IbanResolver ibanResolver;
+    private final CurrentUserProvider currentUserProvider;
+    private final JdbcTemplate jdbcTemplate;
+    private final PlatformTransactionManager transactionManager;
+    private final ObjectMapper objectMapper;
+
+    @Value("${export.fetch-size:1000}")
+    private int fetchSize;
+
+    @Value("${export.flush-every:5000}")
+    private int flushEvery;
+
+    @Override
+    public StreamingResponseBody export(String iban, ExportFormat format, LocalDateTime from, LocalDateTime to) {
+        Long userId = currentUserProvider.currentUserId();
+
+        Account account = ibanResolver.resolve(iban)
+                .orElseThrow(() -> new IllegalArgumentException("Account not found: " + iban));
+
+        if (!account.getUser().getId().equals(userId)) {
+            throw new SecurityException("You don't have access to this account");
+        }
+
+        LocalDateTime start = from != null ? from : EARLIEST;
+        LocalDateTime end = to != null ? to : LATEST;
+
+        return outputStream -> {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8), 64 * 1024);
+            RowWriter rowWriter = format == ExportFormat.CSV ? new CsvRowWriter(writer) : new NdjsonRowWriter(writer);
+
+            // Pages are read in one repeatable-read transaction so they all see the same snapshot.
+            TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+            readOnly.setReadOnly(true);
+            readOnly.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+            long[] rows = {0};
+            readOnly.executeWithoutResult(status -> {
+                Keyset after = new Keyset(Timestamp.valueOf(start), 0L);
+                int pageRows;
+                do {
+                    Keyset pageStart = after;
+                    Keyset[] last = {pageStart};
+                    int[] count = {0};
+                    jdbcTemplate.query(connection -> page(connection, iban, pageStart, Timestamp.valueOf(end)),
+                            (RowCallbackHandler) resultSet -> {
+                                last[0] = new Keyset(resultSet.getTimestamp("timestamp"), resultSet.getLong("id"));
+                                count[0]++;
+                                try {
+                                    rowWriter.write(resultSet);
+                                    if (++rows[0] % flushEvery == 0) {
+                                        rowWriter.flush();
+                                    }
+                                } catch (IOException e) {
+                                    throw new UncheckedIOException(e);
+                                }
+                            });
+                    after = last[0];
+                    pageRows = count[0];
+                } while (pageRows == fetchSize);
+            });
+
+            rowWriter.finish();
+            log.debug("Exported {} transactions for {}", rows[0], iban);
+        };
+    }
+
+    private PreparedStatement page(Connection connection, String iban, Keyset after, Timestamp end) throws SQLException {
+        PreparedStatement statement = connection.prepareStatement(EXPORT_PAGE);
+        statement.setString(1, iban);
+        statement.setTimestamp(2, after.timestamp());
+        statement.setLong(3, after.id());
+        statement.setTimestamp(4, end);
+        statement.setInt(5, fetchSize);
+        statement.setString(6, iban);
+        statement.setString(7, iban);
+        statement.setTimestamp(8, after.timestamp());
+        statement.setLong(9, after.id());
+        statement.setTimestamp(10, end);
+        statement.setInt(11, fetchSize);
+        statement.setInt(12, fetchSize);
+        return statement;
+    }
+
+    private record Keyset(Timestamp timestamp, long id) {
+    }
+
+    private interface RowWriter {
+        void write(ResultSet row) throws SQLException, IOException;
+
+        void flush() throws IOException;
+
+        void finish() throws IOException;
+    }
+
+    private class NdjsonRowWriter implements RowWriter {
+
+        private final JsonGenerator generator;
+        private boolean written;
+
+        NdjsonRowWriter(Writer writer) throws IOException {
+            this.generator = objectMapper.getFactory().createGenerator(writer);
+            this.generator.setPrettyPrinter(new MinimalPrettyPrinter("\n"));
+        }
+
+        @Override
+        public void write(ResultSet row) throws SQLException, IOException {
+            written = true;
+            generator.writeStartObject();
+            generator.writeNumberField("id", row.getLong("id"));
+            generator.writeStringField("type", row.getString("type"));
+            generator.writeStringField("senderIban", row.getString("sender_iban"));
+            generator.writeStringField("receiverIban", row.getString("receiver_iban"));
+            BigDecimal amount = row.getBigDecimal("amount");
+            if (amount == null) {
+                generator.writeNullField("amount");
+            } else {
+                generator.writeNumberField("amount", amount);
+            }
+            BigDecimal receivedAmount = row.getBigDecimal("received_amount");
+            if (receivedAmount == null) {
+                generator.writeNullField("receivedAmount");
+            } else {
+                generator.writeNumberField("receivedAmount", receivedAmount);
+            }
+            Timestamp timestamp = row.getTimestamp("timestamp");
+            generator.writeStringField("timestamp", timestamp == null ? null : timestamp.toLocalDateTime().toString());
+            generator.writeEndObject();
+        }
+
+        @Override
+        public void flush() throws IOException {
+            generator.flush();
+        }
+
+        @Override
+        public void finish() throws IOException {
+            // The pretty printer only separates records; the last one still needs its newline.
+            if (written) {
+                generator.writeRaw('\n');
+            }
+            generator.close();
+        }
+    }
+
+    private static class CsvRowWriter implements RowWriter {
+
+        private final Writer writer;
+
+        CsvRowWriter(Writer writer) throws IOException {
+            this.writer = writer;
+            writer.write("id,type,senderIban,receiverIban,amount,receivedAmount,timestamp\n");
+        }
+
+        @Override
+        public void write(ResultSet row) throws SQLException, IOException {
+            writer.write(Long.toString(row.getLong("id")));
+            writer.write(',');
+            writeValue(row.getString("type"));
+            writer.write(',');
+            writeValue(row.getString("sender_iban"));
+            writer.write(',');
+            writeValue(row.getString("receiver_iban"));
+            writer.write(',');
+            BigDecimal amount = row.getBigDecimal("amount");
+            writeValue(amount == null ? null : amount.toPlainString());
+            writer.write(',');
+            BigDecimal receivedAmount = row.getBigDecimal("received_amount");
+            writeValue(receivedAmount == null ? null : receivedAmount.toPlainString());
+            writer.write(',');
+            Timestamp timestamp = row.getTimestamp("timestamp");
+            writeValue(timestamp == null ? null : timestamp.toLocalDateTime().toString());
+            writer.write('\n');
+        }
+
+        private void writeValue(String value) throws IOException {
+            if (value == null) {
+                return;
+            }
+            if (value.indexOf(',') >= 0 || value.indexOf('"') >= 0 || value.indexOf('\n') >= 0) {
+                writer.write('"');
+                writer.write(value.replace("\"", "\"\""));
+                writer.write('"');
+            } else {
+                writer.write(value);
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            writer.flush();
+        }
+
+        @Override
+        public void finish() throws IOException {
+            writer.flush();
+        }
+    }
+}
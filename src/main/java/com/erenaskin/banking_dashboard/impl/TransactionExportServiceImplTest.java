@@ -0,0 +1,121 @@
+package com.erenaskin.banking_dashboard.impl;
+
+import com.erenaskin.banking_dashboard.cache.IbanResolver;
+import com.erenaskin.banking_dashboard.dto.ExportFormat;
+import com.erenaskin.banking_dashboard.entity.Account;
+import com.erenaskin.banking_dashboard.entity.User;
+import com.erenaskin.banking_dashboard.security.CurrentUserProvider;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.*;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class TransactionExportServiceImplTest {
+
+    private static final String IBAN = "TR1";
+    private static final LocalDateTime T0 = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+    private TransactionExportServiceImpl exportService;
+    private final List<List<ResultSet>> pages = new ArrayList<>();
+    private final List<PreparedStatement> statements = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        IbanResolver ibanResolver = mock(IbanResolver.class);
+        CurrentUserProvider currentUserProvider = mock(CurrentUserProvider.class);
+        JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+        User user = new User();
+        user.setId(7L);
+        when(currentUserProvider.currentUserId()).thenReturn(7L);
+        when(ibanResolver.resolve(IBAN)).thenReturn(Optional.of(Account.builder().iban(IBAN).user(user).build()));
+
+        doAnswer(invocation -> {
+            PreparedStatement statement = mock(PreparedStatement.class);
+            Connection connection = mock(Connection.class);
+            when(connection.prepareStatement(anyString())).thenReturn(statement);
+            ((PreparedStatementCreator) invocation.getArgument(0)).createPreparedStatement(connection);
+            statements.add(statement);
+            RowCallbackHandler handler = invocation.getArgument(1);
+            for (ResultSet row : pages.get(statements.size() - 1)) {
+                handler.processRow(row);
+            }
+            return null;
+        }).when(jdbcTemplate).query(any(PreparedStatementCreator.class), any(RowCallbackHandler.class));
+
+        exportService = new TransactionExportServiceImpl(ibanResolver, currentUserProvider, jdbcTemplate,
+                mock(PlatformTransactionManager.class), new ObjectMapper());
+        ReflectionTestUtils.setField(exportService, "fetchSize", 2);
+        ReflectionTestUtils.setField(exportService, "flushEvery", 5000);
+    }
+
+    @Test
+    void export_ShouldWriteNothing_WhenNdjsonHasNoRows() throws Exception {
+        pages.add(List.of());
+
+        assertEquals("", export(ExportFormat.NDJSON));
+    }
+
+    @Test
+    void export_ShouldPageByKeysetUntilShortPage() throws Exception {
+        pages.add(List.of(row(1, T0), row(2, T0)));
+        pages.add(List.of(row(3, T0.plusSeconds(1))));
+
+        String output = export(ExportFormat.NDJSON);
+
+        assertEquals(3, output.lines().count());
+        assertTrue(output.endsWith("}\n"));
+        assertEquals(2, statements.size());
+        PreparedStatement second = statements.get(1);
+        verify(second).setTimestamp(2, Timestamp.valueOf(T0));
+        verify(second).setLong(3, 2L);
+        verify(second).setTimestamp(8, Timestamp.valueOf(T0));
+        verify(second).setLong(9, 2L);
+    }
+
+    @Test
+    void export_ShouldWriteReceivedAmount_InCsv() throws Exception {
+        ResultSet converted = row(1, T0);
+        when(converted.getBigDecimal("received_amount")).thenReturn(new BigDecimal("320.50"));
+        pages.add(List.of(converted));
+
+        String output = export(ExportFormat.CSV);
+
+        assertEquals("id,type,senderIban,receiverIban,amount,receivedAmount,timestamp\n" +
+                "1,TRANSFER,TR1,TR2,10.00,320.50,2024-01-01T00:00\n", output);
+    }
+
+    private String export(ExportFormat format) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        exportService.export(IBAN, format, null, null).writeTo(out);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    private static ResultSet row(long id, LocalDateTime timestamp) throws SQLException {
+        ResultSet row = mock(ResultSet.class);
+        when(row.getLong("id")).thenReturn(id);
+        when(row.getString("type")).thenReturn("TRANSFER");
+        when(row.getString("sender_iban")).thenReturn(IBAN);
+        when(row.getString("receiver_iban")).thenReturn("TR2");
+        when(row.getBigDecimal("amount")).thenReturn(new BigDecimal("10.00"));
+        when(row.getTimestamp("timestamp")).thenReturn(Timestamp.valueOf(timestamp));
+        return row;
+    }
+}
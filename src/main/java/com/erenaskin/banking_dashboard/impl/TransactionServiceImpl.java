@@ -1,71 +1,250 @@
 
 package com.erenaskin.banking_dashboard.impl;
 
+import com.erenaskin.banking_dashboard.cache.IbanResolver;
 import com.erenaskin.banking_dashboard.dto.*;
 
 import com.erenaskin.banking_dashboard.entity.*;
-import com.erenaskin.banking_dashboard.mapper.*;
+import com.erenaskin.banking_dashboard.fx.FxRateService;
+import com.erenaskin.banking_dashboard.ledger.AccountWriteExecutor;
+import com.erenaskin.banking_dashboard.ledger.BatchTransferProcessor;
+import com.erenaskin.banking_dashboard.ledger.LedgerRecorder;
+import com.erenaskin.banking_dashboard.ledger.TransferCommand;
+import com.erenaskin.banking_dashboard.ledger.TransferCoordinator;
+import com.erenaskin.banking_dashboard.ledger.TransferPipeline;
 import com.erenaskin.banking_dashboard.repository.*;
 
+import com.erenaskin.banking_dashboard.security.CurrentUserProvider;
 import com.erenaskin.banking_dashboard.service.*;
-import jakarta.transaction.Transactional;
+import com.erenaskin.banking_dashboard.util.TransactionCursor;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
-import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
+@Timed(value = "banking.service", histogram = true)
 public class TransactionServiceImpl implements TransactionService {
 
     private final AccountRepository accountRepository;
     private final TransactionRepository transactionRepository;
-    private final UserRepository userRepository;
-    private final TransactionMapper transactionMapper;
-
+    private final IbanResolver ibanResolver;
+    private final CurrentUserProvider currentUserProvider;
+    private final TransferCoordinator transferCoordinator;
+    private final AccountWriteExecutor accountWriteExecutor;
+    private final LedgerRecorder ledgerRecorder;
+    private final FxRateService fxRateService;
+    private final BatchTransferProcessor batchTransferProcessor;
+    private final TransferPipeline transferPipeline;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+
+    @Value("${ledger.batch.max-items:100000}")
+    private int batchMaxItems;
+
+    @Value("${ledger.batch.chunk-size:500}")
+    private int batchChunkSize;
+
+    @Value("${pagination.default-size:50}")
+    private int defaultPageSize;
+
+    @Value("${pagination.max-size:200}")
+    private int maxPageSize;
+
+    /**
+     * Runs on the sender's writer lane, like the TRANSFER branch of
+     * {@code AccountServiceImpl.createTransaction}. With {@code ledger.pipeline.enabled} the
+     * transfer goes to {@link TransferPipeline} instead, which bypasses the lanes for the same
+     * reason {@link #transferBatch} does: a group commit spans many accounts. Row locks keep
+     * that correct; the lanes only order same-account writes ahead of them.
+     */
     @Override
-    @Transactional
     public void transfer(TransferRequest request) {
-        String email = SecurityContextHolder.getContext().getAuthentication().getName();
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new RuntimeException("User not found"));
+        Long userId = currentUserProvider.currentUserId();
 
-        Account sender = accountRepository.findByUser(user).stream()
-                .filter(a -> a.getIban().equals(request.getSenderIban()))
-                .findFirst()
-                .orElseThrow(() -> new RuntimeException("Sender IBAN not found or not owned by user"));
+        Account sender = ibanResolver.resolve(request.getSenderIban())
+                .filter(a -> Objects.equals(a.getUser().getId(), userId))
+                .orElseThrow(() -> new IllegalArgumentException("Sender IBAN not found or not owned by user"));
 
-        Account receiver = accountRepository.findAll().stream()
-                .filter(a -> a.getIban().equals(request.getReceiverIban()))
-                .findFirst()
-                .orElseThrow(() -> new RuntimeException("Receiver IBAN not found"));
+        Account receiver = ibanResolver.resolve(request.getReceiverIban())
+                .orElseThrow(() -> new IllegalArgumentException("Receiver IBAN not found"));
 
         if (sender.getBalance().compareTo(request.getAmount()) < 0) {
-            throw new RuntimeException("Insufficient balance");
+            throw new IllegalArgumentException("Insufficient balance");
         }
 
-        sender.setBalance(sender.getBalance().subtract(request.getAmount()));
-        receiver.setBalance(receiver.getBalance().add(request.getAmount()));
+        if (transferPipeline.isEnabled()) {
+            BatchTransferResult result = transferPipeline.transfer(userId, sender.getIban(), receiver.getIban(),
+                    request.getAmount());
+            if (!BatchTransferResult.SUCCESS.equals(result.status())) {
+                throw new IllegalArgumentException(result.message());
+            }
+            return;
+        }
 
-        accountRepository.save(sender);
-        accountRepository.save(receiver);
+        accountWriteExecutor.run(sender.getIban(), () -> transferCoordinator.transfer(
+                sender.getId(), receiver.getId(), (lockedSender, lockedReceiver) -> {
+            if (lockedSender.getBalance().compareTo(request.getAmount()) < 0) {
+                throw new IllegalArgumentException("Insufficient balance");
+            }
+
+            BigDecimal credited = fxRateService.convert(request.getAmount(),
+                    lockedSender.getCurrency(), lockedReceiver.getCurrency());
+            lockedSender.setBalance(lockedSender.getBalance().subtract(request.getAmount()));
+            lockedReceiver.setBalance(lockedReceiver.getBalance().add(credited));
+
+            accountRepository.save(lockedSender);
+            accountRepository.save(lockedReceiver);
+
+            Transaction tx = Transaction.builder()
+                    .type(TransactionType.TRANSFER)
+                    .senderIban(lockedSender.getIban())
+                    .receiverIban(lockedReceiver.getIban())
+                    .amount(request.getAmount())
+                    .receivedAmount(lockedSender.getCurrency() == lockedReceiver.getCurrency() ? null : credited)
+                    .timestamp(LocalDateTime.now())
+                    .senderBalanceAfter(lockedSender.getBalance())
+                    .receiverBalanceAfter(lockedReceiver.getBalance())
+                    .account(lockedSender)
+                    .build();
+
+            return ledgerRecorder.record(tx);
+        }));
+    }
 
-        Transaction tx = Transaction.builder()
-                .senderIban(sender.getIban())
-                .receiverIban(receiver.getIban())
-                .amount(request.getAmount())
-                .timestamp(LocalDateTime.now())
-                .build();
+    /**
+     * The whole body is parsed and validated before anything is written, so a malformed
+     * document is rejected as a whole instead of failing after earlier chunks committed. Only
+     * TRANSFER items are accepted.
+     *
+     * <p>Chunks go through {@link BatchTransferProcessor}, not the per-IBAN writer lanes: a
+     * chunk touches many accounts and cannot sit on one lane. It is still safe next to the
+     * single-account paths, since every write path locks the account rows it changes (the
+     * processor in ascending id order, under {@link TransferCoordinator}'s retry), and the
+     * lanes only order same-account writes ahead of those locks.
+     */
+    @Override
+    public List<BatchTransferResult> transferBatch(InputStream body) throws IOException {
+        Long userId = currentUserProvider.currentUserId();
+
+        List<BatchTransferResult> results = new ArrayList<>();
+        List<TransferCommand> commands = new ArrayList<>();
+
+        try (JsonParser parser = objectMapper.createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new IllegalArgumentException("Batch body must be a JSON array of transfers");
+            }
+
+            int index = 0;
+            JsonToken token;
+            while ((token = parser.nextToken()) == JsonToken.START_OBJECT) {
+                if (index >= batchMaxItems) {
+                    results.add(new BatchTransferResult(index, BatchTransferResult.REJECTED,
+                            "Batch limit of " + batchMaxItems + " items exceeded, remaining items were not processed"));
+                    break;
+                }
+
+                JsonNode node = objectMapper.readTree(parser);
+                TransferRequest item = null;
+                String error;
+                try {
+                    item = objectMapper.treeToValue(node, TransferRequest.class);
+                    error = validate(item);
+                } catch (JsonProcessingException e) {
+                    error = "Malformed transfer: " + e.getOriginalMessage();
+                }
+                if (error == null && !TransactionType.TRANSFER.name().equals(item.getType())) {
+                    error = "Only TRANSFER items are allowed in a batch, got " + item.getType();
+                }
+
+                if (error != null) {
+                    results.add(BatchTransferResult.failed(index, error));
+                } else {
+                    commands.add(new TransferCommand(index, userId, item.getSenderIban(),
+                            item.getReceiverIban(), item.getAmount()));
+                }
+                index++;
+            }
+            if (token != JsonToken.END_ARRAY && index < batchMaxItems) {
+                throw new IllegalArgumentException("Batch body must be a JSON array of transfer objects");
+            }
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Malformed batch body: " + e.getOriginalMessage());
+        }
+
+        for (int from = 0; from < commands.size(); from += batchChunkSize) {
+            results.addAll(batchTransferProcessor.apply(
+                    commands.subList(from, Math.min(commands.size(), from + batchChunkSize))));
+        }
+        results.sort(Comparator.comparingInt(BatchTransferResult::index));
+        return results;
+    }
 
-        transactionRepository.save(tx);
+    private String validate(TransferRequest item) {
+        Set<ConstraintViolation<TransferRequest>> violations = validator.validate(item);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .map(ConstraintViolation::getMessage)
+                .sorted()
+                .collect(Collectors.joining(", "));
     }
 
     @Override
-    public List<TransactionResponse> getHistory(String iban) {
-        return transactionRepository.findBySenderIbanOrReceiverIban(iban, iban).stream()
-                .map(transactionMapper::toResponse)
+    public CursorPage<TransactionResponse> getHistory(String iban, String cursor, Integer size) {
+        TransactionCursor after = TransactionCursor.decode(cursor);
+        int limit = pageSize(size);
+        PageRequest window = PageRequest.of(0, limit + 1);
+
+        // Each side is an index range scan on (iban, timestamp, id); merging the two windows
+        // keeps the cost of a page independent of how deep the history is.
+        Map<Long, TransactionView> merged = new HashMap<>();
+        transactionRepository.findSentBefore(iban, after.timestamp(), after.id(), window)
+                .forEach(tx -> merged.put(tx.id(), tx));
+        transactionRepository.findReceivedBefore(iban, after.timestamp(), after.id(), window)
+                .forEach(tx -> merged.putIfAbsent(tx.id(), tx));
+
+        List<TransactionView> ordered = merged.values().stream()
+                .sorted(Comparator.comparing(TransactionView::timestamp)
+                        .thenComparing(TransactionView::id)
+                        .reversed())
                 .toList();
+
+        boolean hasMore = ordered.size() > limit;
+        List<TransactionView> page = hasMore ? ordered.subList(0, limit) : ordered;
+
+        return new CursorPage<>(
+                page.stream().map(TransactionView::toResponse).toList(),
+                hasMore ? TransactionCursor.of(page.get(page.size() - 1)).encode() : null);
+    }
+
+    private int pageSize(Integer requested) {
+        if (requested == null) {
+            return Math.max(1, defaultPageSize);
+        }
+        return Math.max(1, Math.min(requested, maxPageSize));
     }
 }
@@ -1,15 +1,28 @@
 package com.erenaskin.banking_dashboard.impl;
 
+import com.erenaskin.banking_dashboard.cache.IbanResolver;
+import com.erenaskin.banking_dashboard.dto.BatchTransferResult;
+import com.erenaskin.banking_dashboard.dto.CursorPage;
 import com.erenaskin.banking_dashboard.dto.TransactionResponse;
+import com.erenaskin.banking_dashboard.dto.TransactionView;
 import com.erenaskin.banking_dashboard.dto.TransferRequest;
 import com.erenaskin.banking_dashboard.entity.Account;
-import com.erenaskin.banking_dashboard.entity.Transaction;
 import com.erenaskin.banking_dashboard.entity.User;
-import com.erenaskin.banking_dashboard.mapper.TransactionMapper;
+import com.erenaskin.banking_dashboard.exception.OutcomeUnknownException;
+import com.erenaskin.banking_dashboard.fx.FxRateService;
+import com.erenaskin.banking_dashboard.ledger.AccountWriteExecutor;
+import com.erenaskin.banking_dashboard.ledger.BatchTransferProcessor;
+import com.erenaskin.banking_dashboard.ledger.LedgerRecorder;
+import com.erenaskin.banking_dashboard.ledger.TransferCommand;
+import com.erenaskin.banking_dashboard.ledger.TransferCoordinator;
+import com.erenaskin.banking_dashboard.ledger.TransferPipeline;
 import com.erenaskin.banking_dashboard.repository.AccountRepository;
 import com.erenaskin.banking_dashboard.repository.TransactionRepository;
 import com.erenaskin.banking_dashboard.repository.UserRepository;
-import jakarta.transaction.Transactional;
+import com.erenaskin.banking_dashboard.util.TransactionCursor;
+import com.erenaskin.banking_dashboard.security.CurrentUserProvider;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.Validation;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.*;
@@ -17,11 +30,15 @@ import org.mockito.*;
 import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.Authentication;
+import org.springframework.test.util.ReflectionTestUtils;
 
+import java.io.ByteArrayInputStream;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.BiFunction;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -35,7 +52,19 @@ class TransactionServiceImplTest {
     @Mock
     private UserRepository userRepository;
     @Mock
-    private TransactionMapper transactionMapper;
+    private IbanResolver ibanResolver;
+    @Mock
+    private CurrentUserProvider currentUserProvider;
+    @Mock
+    private TransferCoordinator transferCoordinator;
+    @Mock
+    private LedgerRecorder ledgerRecorder;
+    @Mock
+    private FxRateService fxRateService;
+    @Mock
+    private TransferPipeline transferPipeline;
+    @Mock
+    private AccountWriteExecutor accountWriteExecutor;
 
     @InjectMocks
     private TransactionServiceImpl transactionService;
@@ -43,6 +72,13 @@ class TransactionServiceImplTest {
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
+        when(fxRateService.convert(any(), any(), any())).thenAnswer(invocation -> invocation.getArgument(0));
+        ReflectionTestUtils.setField(transactionService, "defaultPageSize", 50);
+        ReflectionTestUtils.setField(transactionService, "maxPageSize", 200);
+        doAnswer(invocation -> {
+            ((Runnable) invocation.getArgument(1)).run();
+            return null;
+        }).when(accountWriteExecutor).run(any(), any());
 
         // Mock Spring Security context
         Authentication authentication = mock(Authentication.class);
@@ -56,7 +92,7 @@ class TransactionServiceImplTest {
     void transfer_ShouldThrow_WhenUserNotFound() {
         TransferRequest request = new TransferRequest("TRANSFER", new BigDecimal("100"), "TR456", "TR123");
 
-        when(userRepository.findByEmail("user@example.com")).thenReturn(Optional.empty());
+        when(currentUserProvider.currentUserId()).thenThrow(new IllegalStateException("User not found"));
 
         RuntimeException ex = assertThrows(RuntimeException.class, () -> transactionService.transfer(request));
         assertEquals("User not found", ex.getMessage());
@@ -67,9 +103,9 @@ class TransactionServiceImplTest {
         TransferRequest request = new TransferRequest("TRANSFER", new BigDecimal("100"), "TR456", "TR123");
 
         User user = new User();
-        when(userRepository.findByEmail("user@example.com")).thenReturn(Optional.of(user));
-        when(accountRepository.findByUser(user)).thenReturn(List.of(
-                Account.builder().iban("TR999").balance(BigDecimal.TEN).build()
+        when(currentUserProvider.currentUserId()).thenReturn(user.getId());
+        when(ibanResolver.resolve("TR123")).thenReturn(Optional.of(
+                Account.builder().iban("TR123").balance(BigDecimal.TEN).user(User.builder().id(2L).build()).build()
         ));
 
         RuntimeException ex = assertThrows(RuntimeException.class, () -> transactionService.transfer(request));
@@ -81,11 +117,11 @@ class TransactionServiceImplTest {
         TransferRequest request = new TransferRequest("TRANSFER", new BigDecimal("100"), "TR456", "TR123");
 
         User user = new User();
-        Account sender = Account.builder().iban("TR123").balance(new BigDecimal("200")).build();
+        Account sender = Account.builder().iban("TR123").balance(new BigDecimal("200")).user(user).build();
 
-        when(userRepository.findByEmail("user@example.com")).thenReturn(Optional.of(user));
-        when(accountRepository.findByUser(user)).thenReturn(List.of(sender));
-        when(accountRepository.findAll()).thenReturn(List.of());
+        when(currentUserProvider.currentUserId()).thenReturn(user.getId());
+        when(ibanResolver.resolve("TR123")).thenReturn(Optional.of(sender));
+        when(ibanResolver.resolve("TR456")).thenReturn(Optional.empty());
 
         RuntimeException ex = assertThrows(RuntimeException.class, () -> transactionService.transfer(request));
         assertEquals("Receiver IBAN not found", ex.getMessage());
@@ -96,55 +132,185 @@ class TransactionServiceImplTest {
         TransferRequest request = new TransferRequest("TRANSFER", new BigDecimal("300"), "TR456", "TR123");
 
         User user = new User();
-        Account sender = Account.builder().iban("TR123").balance(new BigDecimal("200")).build();
+        Account sender = Account.builder().iban("TR123").balance(new BigDecimal("200")).user(user).build();
         Account receiver = Account.builder().iban("TR456").balance(new BigDecimal("100")).build();
 
-        when(userRepository.findByEmail("user@example.com")).thenReturn(Optional.of(user));
-        when(accountRepository.findByUser(user)).thenReturn(List.of(sender));
-        when(accountRepository.findAll()).thenReturn(List.of(receiver));
+        when(currentUserProvider.currentUserId()).thenReturn(user.getId());
+        when(ibanResolver.resolve("TR123")).thenReturn(Optional.of(sender));
+        when(ibanResolver.resolve("TR456")).thenReturn(Optional.of(receiver));
 
         RuntimeException ex = assertThrows(RuntimeException.class, () -> transactionService.transfer(request));
         assertEquals("Insufficient balance", ex.getMessage());
     }
 
     @Test
-    @Transactional
     void transfer_ShouldUpdateBalancesAndSaveTransaction() {
         TransferRequest request = new TransferRequest("TRANSFER", new BigDecimal("100"), "TR456", "TR123");
 
         User user = new User();
-        Account sender = Account.builder().iban("TR123").balance(new BigDecimal("200")).build();
+        Account sender = Account.builder().iban("TR123").balance(new BigDecimal("200")).user(user).build();
         Account receiver = Account.builder().iban("TR456").balance(new BigDecimal("100")).build();
 
-        when(userRepository.findByEmail("user@example.com")).thenReturn(Optional.of(user));
-        when(accountRepository.findByUser(user)).thenReturn(List.of(sender));
-        when(accountRepository.findAll()).thenReturn(List.of(receiver));
-        when(transactionRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        when(currentUserProvider.currentUserId()).thenReturn(user.getId());
+        when(ibanResolver.resolve("TR123")).thenReturn(Optional.of(sender));
+        when(ibanResolver.resolve("TR456")).thenReturn(Optional.of(receiver));
+        when(ledgerRecorder.record(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        when(transferCoordinator.transfer(any(), any(), any())).thenAnswer(invocation -> {
+            BiFunction<Account, Account, Object> work = invocation.getArgument(2);
+            return work.apply(sender, receiver);
+        });
 
         transactionService.transfer(request);
 
         assertEquals(new BigDecimal("100"), sender.getBalance());
         assertEquals(new BigDecimal("200"), receiver.getBalance());
 
+        verify(accountWriteExecutor).run(eq("TR123"), any());
         verify(accountRepository).save(sender);
         verify(accountRepository).save(receiver);
-        verify(transactionRepository).save(any());
+        verify(ledgerRecorder).record(any());
+    }
+
+    @Test
+    void transfer_ShouldGoThroughPipeline_WhenEnabled() {
+        TransferRequest request = new TransferRequest("TRANSFER", new BigDecimal("100"), "TR456", "TR123");
+
+        User user = User.builder().id(1L).build();
+        Account sender = Account.builder().iban("TR123").balance(new BigDecimal("200")).user(user).build();
+        Account receiver = Account.builder().iban("TR456").balance(new BigDecimal("100")).build();
+
+        when(currentUserProvider.currentUserId()).thenReturn(1L);
+        when(ibanResolver.resolve("TR123")).thenReturn(Optional.of(sender));
+        when(ibanResolver.resolve("TR456")).thenReturn(Optional.of(receiver));
+        when(transferPipeline.isEnabled()).thenReturn(true);
+        when(transferPipeline.transfer(1L, "TR123", "TR456", new BigDecimal("100")))
+                .thenReturn(BatchTransferResult.success(0));
+
+        transactionService.transfer(request);
+
+        verify(transferPipeline).transfer(1L, "TR123", "TR456", new BigDecimal("100"));
+        verifyNoInteractions(transferCoordinator, ledgerRecorder);
+    }
+
+    @Test
+    void transfer_ShouldThrow_WhenPipelineRejectsItem() {
+        TransferRequest request = new TransferRequest("TRANSFER", new BigDecimal("100"), "TR456", "TR123");
+
+        User user = User.builder().id(1L).build();
+        Account sender = Account.builder().iban("TR123").balance(new BigDecimal("200")).user(user).build();
+        Account receiver = Account.builder().iban("TR456").balance(new BigDecimal("100")).build();
+
+        when(currentUserProvider.currentUserId()).thenReturn(1L);
+        when(ibanResolver.resolve("TR123")).thenReturn(Optional.of(sender));
+        when(ibanResolver.resolve("TR456")).thenReturn(Optional.of(receiver));
+        when(transferPipeline.isEnabled()).thenReturn(true);
+        when(transferPipeline.transfer(any(), any(), any(), any()))
+                .thenReturn(BatchTransferResult.failed(0, "Insufficient balance"));
+
+        IllegalArgumentException ex = assertThrows(IllegalArgumentException.class,
+                () -> transactionService.transfer(request));
+        assertEquals("Insufficient balance", ex.getMessage());
+        verifyNoInteractions(transferCoordinator);
+    }
+
+    @Test
+    void transfer_ShouldPropagateUnknownOutcome_WhenPipelineTimesOut() {
+        TransferRequest request = new TransferRequest("TRANSFER", new BigDecimal("100"), "TR456", "TR123");
+
+        User user = User.builder().id(1L).build();
+        Account sender = Account.builder().iban("TR123").balance(new BigDecimal("200")).user(user).build();
+        Account receiver = Account.builder().iban("TR456").balance(new BigDecimal("100")).build();
+
+        when(currentUserProvider.currentUserId()).thenReturn(1L);
+        when(ibanResolver.resolve("TR123")).thenReturn(Optional.of(sender));
+        when(ibanResolver.resolve("TR456")).thenReturn(Optional.of(receiver));
+        when(transferPipeline.isEnabled()).thenReturn(true);
+        when(transferPipeline.transfer(any(), any(), any(), any()))
+                .thenThrow(new OutcomeUnknownException("Timed out waiting for transfer to commit"));
+
+        assertThrows(OutcomeUnknownException.class, () -> transactionService.transfer(request));
+        verifyNoInteractions(transferCoordinator);
     }
 
     @Test
-    void getHistory_ShouldReturnMappedTransactions() {
+    void transferBatch_ShouldRejectWholeBody_WhenJsonBreaksAfterValidItems() {
+        BatchTransferProcessor processor = batchProcessor();
+        String body = "[{\"type\":\"TRANSFER\",\"amount\":1,\"senderIban\":\"TR1\",\"receiverIban\":\"TR2\"}, {\"type\":";
+
+        assertThrows(IllegalArgumentException.class, () -> transactionService.transferBatch(
+                new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8))));
+        verifyNoInteractions(processor);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void transferBatch_ShouldFailNonTransferItemsAndApplyTheRest() throws Exception {
+        BatchTransferProcessor processor = batchProcessor();
+        when(processor.apply(anyList())).thenAnswer(invocation -> ((List<TransferCommand>) invocation.getArgument(0))
+                .stream().map(command -> BatchTransferResult.success(command.index())).toList());
+        String body = "[{\"type\":\"DEPOSIT\",\"amount\":1,\"senderIban\":\"TR1\",\"receiverIban\":\"TR2\"}," +
+                "{\"type\":\"TRANSFER\",\"amount\":2,\"senderIban\":\"TR1\",\"receiverIban\":\"TR2\"}]";
+
+        List<BatchTransferResult> results = transactionService.transferBatch(
+                new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals(BatchTransferResult.FAILED, results.get(0).status());
+        assertEquals(BatchTransferResult.SUCCESS, results.get(1).status());
+        ArgumentCaptor<List<TransferCommand>> applied = ArgumentCaptor.forClass(List.class);
+        verify(processor).apply(applied.capture());
+        assertEquals(1, applied.getValue().size());
+        assertEquals(1, applied.getValue().get(0).index());
+    }
+
+    @Test
+    void getHistory_ShouldMergeSentAndReceivedRows() {
         String iban = "TR123";
-        Transaction tx1 = Transaction.builder().id(1L).senderIban(iban).amount(new BigDecimal("50")).build();
-        Transaction tx2 = Transaction.builder().id(2L).receiverIban(iban).amount(new BigDecimal("30")).build();
+        TransactionView sent = new TransactionView(1L, iban, null, new BigDecimal("50"), null,
+                LocalDateTime.of(2025, 7, 9, 12, 0), new BigDecimal("950"), null);
+        TransactionView received = new TransactionView(2L, null, iban, new BigDecimal("30"), new BigDecimal("900"),
+                LocalDateTime.of(2025, 7, 8, 9, 30), null, new BigDecimal("1000"));
+
+        when(transactionRepository.findSentBefore(eq(iban), any(), any(), any())).thenReturn(List.of(sent));
+        when(transactionRepository.findReceivedBefore(eq(iban), any(), any(), any())).thenReturn(List.of(received));
+
+        CursorPage<TransactionResponse> responses = transactionService.getHistory(iban, null, 10);
+
+        assertEquals(2, responses.items().size());
+        assertNull(responses.nextCursor());
+        assertEquals(new BigDecimal("50"), responses.items().get(0).getAmount());
+        assertEquals(new BigDecimal("950"), responses.items().get(0).getSenderBalanceAfter());
+        assertEquals(iban, responses.items().get(1).getReceiverIban());
+        assertNull(responses.items().get(0).getReceivedAmount());
+        assertEquals(new BigDecimal("900"), responses.items().get(1).getReceivedAmount());
+        verify(transactionRepository).findSentBefore(eq(iban), any(), any(), any());
+    }
 
-        when(transactionRepository.findBySenderIbanOrReceiverIban(iban, iban)).thenReturn(List.of(tx1, tx2));
-        when(transactionMapper.toResponse(tx1)).thenReturn(new TransactionResponse(iban, null, new BigDecimal("50"), null));
-        when(transactionMapper.toResponse(tx2)).thenReturn(new TransactionResponse(null, iban, new BigDecimal("30"), null));
+    @Test
+    void getHistory_ShouldReturnNextCursor_WhenMoreRowsThanPageSize() {
+        String iban = "TR123";
+        TransactionView newer = new TransactionView(2L, iban, null, BigDecimal.ONE, null,
+                LocalDateTime.of(2025, 7, 9, 12, 0), null, null);
+        TransactionView older = new TransactionView(1L, null, iban, BigDecimal.ONE, null,
+                LocalDateTime.of(2025, 7, 8, 9, 30), null, null);
+
+        when(transactionRepository.findSentBefore(eq(iban), any(), any(), any())).thenReturn(List.of(newer));
+        when(transactionRepository.findReceivedBefore(eq(iban), any(), any(), any())).thenReturn(List.of(older));
 
-        List<TransactionResponse> responses = transactionService.getHistory(iban);
+        CursorPage<TransactionResponse> page = transactionService.getHistory(iban, null, 1);
+
+        assertEquals(1, page.items().size());
+        assertEquals(new TransactionCursor(newer.timestamp(), 2L), TransactionCursor.decode(page.nextCursor()));
+    }
 
-        assertEquals(2, responses.size());
-        verify(transactionRepository).findBySenderIbanOrReceiverIban(iban, iban);
-        verify(transactionMapper, times(2)).toResponse(any());
+    private BatchTransferProcessor batchProcessor() {
+        BatchTransferProcessor processor = mock(BatchTransferProcessor.class);
+        when(currentUserProvider.currentUserId()).thenReturn(1L);
+        ReflectionTestUtils.setField(transactionService, "batchTransferProcessor", processor);
+        ReflectionTestUtils.setField(transactionService, "objectMapper", new ObjectMapper());
+        ReflectionTestUtils.setField(transactionService, "validator",
+                Validation.buildDefaultValidatorFactory().getValidator());
+        ReflectionTestUtils.setField(transactionService, "batchMaxItems", 100);
+        ReflectionTestUtils.setField(transactionService, "batchChunkSize", 10);
+        return processor;
     }
 }
@@ -0,0 +1,160 @@
+package com.erenaskin.banking_dashboard.journal;
+
+import com.erenaskin.banking_dashboard.entity.Transaction;
+import com.erenaskin.banking_dashboard.entity.TransactionType;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.zip.CRC32C;
+
+/**
+ * One balance mutation in the transfer journal, or a marker recording whether the transaction
+ * that wrote an earlier record committed or rolled back. Records have a fixed {@link #SIZE}-byte
+ * layout so a segment can be addressed by index and a torn tail is detected by its checksum:
+ *
+ * <pre>
+ *   0  int    crc32c of bytes 4..SIZE
+ *   4  long   sequence (0 marks unwritten space)
+ *  12  long   timestamp, epoch millis
+ *  20  byte   TransactionType ordinal, -1 for a void marker, -2 for a commit marker
+ *  24  long   marked sequence (markers only)
+ *  32  34B    sender IBAN, ASCII, zero padded
+ *  66  34B    receiver IBAN, ASCII, zero padded
+ * 100  long   amount           \
+ * 108  long   received amount   | unscaled at MONEY_SCALE,
+ * 116  long   sender balance    | Long.MIN_VALUE for null
+ * 124  long   receiver balance /
+ * 132  int    reserved
+ * </pre>
+ */
+public record JournalRecord(long sequence, long timestamp, TransactionType type, boolean commit, long markedSequence,
+                            String senderIban, String receiverIban, BigDecimal amount, BigDecimal receivedAmount,
+                            BigDecimal senderBalanceAfter, BigDecimal receiverBalanceAfter) {
+
+    public static final int SIZE = 136;
+    public static final int MONEY_SCALE = 4;
+
+    private static final int IBAN_LENGTH = 34;
+    private static final byte VOID = -1;
+    private static final byte COMMIT = -2;
+    private static final long NULL_MONEY = Long.MIN_VALUE;
+    private static final TransactionType[] TYPES = TransactionType.values();
+
+    public static JournalRecord of(Transaction transaction) {
+        return of(transaction.getType(), transaction.getSenderIban(), transaction.getReceiverIban(),
+                transaction.getAmount(), transaction.getReceivedAmount(), transaction.getTimestamp(),
+                transaction.getSenderBalanceAfter(), transaction.getReceiverBalanceAfter());
+    }
+
+    public static JournalRecord of(TransactionType type, String senderIban, String receiverIban, BigDecimal amount,
+                                   BigDecimal receivedAmount, LocalDateTime timestamp,
+                                   BigDecimal senderBalanceAfter, BigDecimal receiverBalanceAfter) {
+        return new JournalRecord(0, timestamp.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli(), type, false, 0,
+                senderIban, receiverIban, amount, receivedAmount, senderBalanceAfter, receiverBalanceAfter);
+    }
+
+    public static JournalRecord voiding(long sequence) {
+        return marker(sequence, false);
+    }
+
+    public static JournalRecord committing(long sequence) {
+        return marker(sequence, true);
+    }
+
+    private static JournalRecord marker(long sequence, boolean commit) {
+        return new JournalRecord(0, System.currentTimeMillis(), null, commit, sequence,
+                null, null, null, null, null, null);
+    }
+
+    public boolean isMarker() {
+        return type == null;
+    }
+
+    public boolean isVoid() {
+        return isMarker() && !commit;
+    }
+
+    public boolean isCommit() {
+        return isMarker() && commit;
+    }
+
+    void encode(long assignedSequence, ByteBuffer target) {
+        target.clear();
+        target.putInt(0);
+        target.putLong(assignedSequence);
+        target.putLong(timestamp);
+        target.put(type != null ? (byte) type.ordinal() : commit ? COMMIT : VOID);
+        target.put(new byte[3]);
+        target.putLong(markedSequence);
+        putIban(target, senderIban);
+        putIban(target, receiverIban);
+        target.putLong(toUnscaled(amount));
+        target.putLong(toUnscaled(receivedAmount));
+        target.putLong(toUnscaled(senderBalanceAfter));
+        target.putLong(toUnscaled(receiverBalanceAfter));
+        target.putInt(0);
+        target.putInt(0, checksum(target));
+        target.flip();
+    }
+
+    /**
+     * Decodes the record at the buffer's current position, or returns {@code null} when the
+     * slot is unwritten or fails its checksum.
+     */
+    static JournalRecord decode(ByteBuffer source) {
+        ByteBuffer slot = source.slice(source.position(), SIZE);
+        if (slot.getLong(4) == 0 || slot.getInt(0) != checksum(slot)) {
+            return null;
+        }
+        slot.position(4);
+        long sequence = slot.getLong();
+        long timestamp = slot.getLong();
+        byte type = slot.get();
+        slot.position(slot.position() + 3);
+        long marked = slot.getLong();
+        String sender = getIban(slot);
+        String receiver = getIban(slot);
+        return new JournalRecord(sequence, timestamp, type < 0 ? null : TYPES[type], type == COMMIT, marked,
+                sender, receiver,
+                fromUnscaled(slot.getLong()), fromUnscaled(slot.getLong()),
+                fromUnscaled(slot.getLong()), fromUnscaled(slot.getLong()));
+    }
+
+    private static int checksum(ByteBuffer record) {
+        CRC32C crc = new CRC32C();
+        crc.update(record.slice(4, SIZE - 4));
+        return (int) crc.getValue();
+    }
+
+    private static void putIban(ByteBuffer target, String iban) {
+        byte[] bytes = iban == null ? new byte[0] : iban.getBytes(StandardCharsets.US_ASCII);
+        if (bytes.length > IBAN_LENGTH) {
+            throw new IllegalArgumentException("IBAN too long for journal: " + iban);
+        }
+        target.put(bytes);
+        target.put(new byte[IBAN_LENGTH - bytes.length]);
+    }
+
+    private static String getIban(ByteBuffer source) {
+        byte[] bytes = new byte[IBAN_LENGTH];
+        source.get(bytes);
+        int length = 0;
+        while (length < IBAN_LENGTH && bytes[length] != 0) {
+            length++;
+        }
+        return length == 0 ? null : new String(bytes, 0, length, StandardCharsets.US_ASCII);
+    }
+
+    private static long toUnscaled(BigDecimal value) {
+        return value == null ? NULL_MONEY : value.setScale(MONEY_SCALE, RoundingMode.HALF_EVEN).unscaledValue().longValueExact();
+    }
+
+    private static BigDecimal fromUnscaled(long value) {
+        return value == NULL_MONEY ? null : new BigDecimal(BigInteger.valueOf(value), MONEY_SCALE);
+    }
+}
@@ -0,0 +1,115 @@
+package com.erenaskin.banking_dashboard.journal;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.*;
+
+/**
+ * Replays the transfer journal on startup. Every account's balance is taken from the
+ * balance-after value of the last record that touched it and has a commit marker; records
+ * without one are skipped. In {@code verify} mode differences to the {@code accounts} table are
+ * logged, in {@code rebuild} mode the table is overwritten with the journal's balances, unless
+ * the journal holds unconfirmed records, in which case rebuild falls back to verify. Accounts
+ * that never appear in the journal are left alone. Rebuild is meant for a node that does not
+ * serve traffic yet.
+ */
+@Component
+@ConditionalOnProperty(name = "journal.enabled", havingValue = "true")
+@RequiredArgsConstructor
+@Slf4j
+public class JournalReplay implements ApplicationRunner {
+
+    private static final int MAX_LOGGED_MISMATCHES = 20;
+
+    private final TransferJournal transferJournal;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${journal.replay.mode:verify}")
+    private String mode;
+
+    @Override
+    public void run(ApplicationArguments args) throws IOException {
+        if ("none".equalsIgnoreCase(mode)) {
+            return;
+        }
+        boolean rebuild = "rebuild".equalsIgnoreCase(mode);
+        long start = System.nanoTime();
+
+        Snapshot snapshot = snapshot();
+        if (rebuild && snapshot.unconfirmed() > 0) {
+            log.error("Journal holds {} records whose transaction outcome was never recorded; refusing to rebuild, " +
+                    "verifying instead", snapshot.unconfirmed());
+            rebuild = false;
+        }
+        Map<String, BigDecimal> journaled = snapshot.balances();
+        Map<String, BigDecimal> stored = new HashMap<>();
+        jdbcTemplate.query("select iban, balance from accounts",
+                rs -> { stored.put(rs.getString("iban"), rs.getBigDecimal("balance")); });
+
+        List<Object[]> corrections = new ArrayList<>();
+        for (Map.Entry<String, BigDecimal> entry : journaled.entrySet()) {
+            BigDecimal balance = stored.get(entry.getKey());
+            if (balance == null) {
+                log.warn("Journal references unknown account {}", entry.getKey());
+            } else if (balance.compareTo(entry.getValue()) != 0) {
+                if (corrections.size() < MAX_LOGGED_MISMATCHES) {
+                    log.warn("Balance mismatch for {}: table {}, journal {}", entry.getKey(), balance, entry.getValue());
+                }
+                corrections.add(new Object[]{entry.getValue(), entry.getKey()});
+            }
+        }
+
+        if (rebuild && !corrections.isEmpty()) {
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(
+                    "update accounts set balance = ?, version = version + 1 where iban = ?", corrections));
+        }
+        log.info("Journal {} checked {} accounts in {} ms: {} mismatches{}", rebuild ? "rebuild" : "verify",
+                journaled.size(), (System.nanoTime() - start) / 1_000_000, corrections.size(),
+                rebuild && !corrections.isEmpty() ? " corrected" : "");
+    }
+
+    Snapshot snapshot() throws IOException {
+        Set<Long> committed = new HashSet<>();
+        Set<Long> voided = new HashSet<>();
+        transferJournal.replay(record -> {
+            if (record.isCommit()) {
+                committed.add(record.markedSequence());
+            } else if (record.isVoid()) {
+                voided.add(record.markedSequence());
+            }
+        });
+
+        Map<String, BigDecimal> balances = new HashMap<>();
+        long[] unconfirmed = {0};
+        transferJournal.replay(record -> {
+            if (record.isMarker() || voided.contains(record.sequence())) {
+                return;
+            }
+            if (!committed.contains(record.sequence())) {
+                unconfirmed[0]++;
+                return;
+            }
+            if (record.senderIban() != null && record.senderBalanceAfter() != null) {
+                balances.put(record.senderIban(), record.senderBalanceAfter());
+            }
+            if (record.receiverIban() != null && record.receiverBalanceAfter() != null) {
+                balances.put(record.receiverIban(), record.receiverBalanceAfter());
+            }
+        });
+        return new Snapshot(balances, unconfirmed[0]);
+    }
+
+    record Snapshot(Map<String, BigDecimal> balances, long unconfirmed) {
+    }
+}
@@ -0,0 +1,154 @@
+package com.erenaskin.banking_dashboard.journal;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * A fixed-capacity, memory-mapped journal file. The file is named after the sequence of its
+ * first record and holds consecutive sequences, so the record for sequence {@code s} lives at
+ * slot {@code s - firstSequence}. Writes are made by one thread at a time (the journal's append
+ * lock); {@link #force()} may run concurrently with them.
+ */
+final class JournalSegment implements Closeable {
+
+    static final String SUFFIX = ".journal";
+
+    private final Path path;
+    private final long firstSequence;
+    private final int capacity;
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+
+    // Guards forced; a lock rather than a monitor so a virtual thread is not pinned during the fsync.
+    private final ReentrantLock forceLock = new ReentrantLock();
+
+    private volatile int written;
+    private int forced;
+
+    private JournalSegment(Path path, long firstSequence, int capacity) throws IOException {
+        this.path = path;
+        this.firstSequence = firstSequence;
+        this.capacity = capacity;
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, (long) capacity * JournalRecord.SIZE);
+
+        int valid = 0;
+        while (valid < capacity && readSlot(buffer, valid, firstSequence + valid) != null) {
+            valid++;
+        }
+        this.written = valid;
+        this.forced = valid * JournalRecord.SIZE;
+        discardTail();
+    }
+
+    static JournalSegment open(Path directory, long firstSequence, int capacity) throws IOException {
+        Path path = directory.resolve(fileName(firstSequence));
+        // An existing segment keeps its size even if journal.segment-bytes changed since it was created.
+        int existing = Files.exists(path) ? (int) (Files.size(path) / JournalRecord.SIZE) : 0;
+        return new JournalSegment(path, firstSequence, Math.max(capacity, existing));
+    }
+
+    static String fileName(long firstSequence) {
+        return String.format("%020d%s", firstSequence, SUFFIX);
+    }
+
+    static long firstSequenceOf(Path path) {
+        String name = path.getFileName().toString();
+        return Long.parseLong(name.substring(0, name.length() - SUFFIX.length()));
+    }
+
+    /**
+     * Reads the valid records of a segment file up to and including {@code lastSequence},
+     * through a separate read-only mapping so it does not disturb the writer.
+     */
+    static void read(Path path, long lastSequence, Consumer<JournalRecord> consumer) throws IOException {
+        long firstSequence = firstSequenceOf(path);
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            int slots = (int) (channel.size() / JournalRecord.SIZE);
+            ByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, (long) slots * JournalRecord.SIZE);
+            for (int slot = 0; slot < slots && firstSequence + slot <= lastSequence; slot++) {
+                JournalRecord record = readSlot(mapped, slot, firstSequence + slot);
+                if (record == null) {
+                    break;
+                }
+                consumer.accept(record);
+            }
+        }
+    }
+
+    private static JournalRecord readSlot(ByteBuffer mapped, int slot, long expectedSequence) {
+        JournalRecord record = JournalRecord.decode(mapped.duplicate().position(slot * JournalRecord.SIZE));
+        return record != null && record.sequence() == expectedSequence ? record : null;
+    }
+
+    /**
+     * Clears whatever follows the last valid record. Without this, records that reached the disk
+     * after a torn one would look valid again once the gap in front of them is rewritten.
+     */
+    private void discardTail() {
+        byte[] empty = new byte[JournalRecord.SIZE];
+        boolean dirty = false;
+        for (int slot = written; slot < capacity; slot++) {
+            if (buffer.getLong(slot * JournalRecord.SIZE + 4) != 0) {
+                buffer.put(slot * JournalRecord.SIZE, empty);
+                dirty = true;
+            }
+        }
+        if (dirty) {
+            buffer.force();
+        }
+    }
+
+    long firstSequence() {
+        return firstSequence;
+    }
+
+    long nextSequence() {
+        return firstSequence + written;
+    }
+
+    boolean isFull() {
+        return written == capacity;
+    }
+
+    Path path() {
+        return path;
+    }
+
+    void write(ByteBuffer encoded) {
+        int slot = written;
+        buffer.put(slot * JournalRecord.SIZE, encoded, 0, JournalRecord.SIZE);
+        written = slot + 1;
+    }
+
+    void force() {
+        forceLock.lock();
+        try {
+            int end = written * JournalRecord.SIZE;
+            if (end > forced) {
+                buffer.force(forced, end - forced);
+                forced = end;
+            }
+        } finally {
+            forceLock.unlock();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        force();
+        channel.close();
+    }
+
+    static boolean isSegment(Path path) {
+        return Files.isRegularFile(path) && path.getFileName().toString().endsWith(SUFFIX);
+    }
+}
@@ -0,0 +1,282 @@
+package com.erenaskin.banking_dashboard.journal;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Append-only, memory-mapped journal of balance mutations. Appends are serialized under one
+ * lock and only copy a fixed-size record into the active segment; durability is requested
+ * separately through {@link #awaitDurable(long)}, where the first waiter forces everything
+ * written so far and the writers that queued up behind it find their record already on disk
+ * (group commit). Segments roll over once full.
+ *
+ * <p>Inside a DB transaction the journal is written ahead: records are appended while the
+ * account rows are still locked, so journal order matches the order in which balances changed,
+ * and are forced before the commit. Once the transaction has completed, a commit or void marker
+ * is appended for each of its records; a record without a marker belongs to a transaction whose
+ * outcome the journal never learned. Only the newest {@code journal.retention.max-segments}
+ * segments are kept.
+ */
+@Component
+@Slf4j
+public class TransferJournal {
+
+    @Value("${journal.enabled:false}")
+    private boolean enabled;
+
+    @Value("${journal.dir:data/journal}")
+    private String directory;
+
+    @Value("${journal.segment-bytes:67108864}")
+    private long segmentBytes;
+
+    @Value("${journal.fsync:true}")
+    private boolean fsync;
+
+    // Zero or less keeps every segment.
+    @Value("${journal.retention.max-segments:8}")
+    private int maxSegments;
+
+    private final ReentrantLock appendLock = new ReentrantLock();
+    private final ReentrantLock syncLock = new ReentrantLock();
+    private final ByteBuffer scratch = ByteBuffer.allocate(JournalRecord.SIZE);
+
+    private final AtomicLong appends = new AtomicLong();
+    private final AtomicLong fsyncs = new AtomicLong();
+    private final AtomicLong fsyncNanos = new AtomicLong();
+    private volatile long maxFsyncNanos;
+
+    private Path root;
+    private int segmentCapacity;
+    private volatile JournalSegment active;
+    private volatile long lastWritten;
+    private volatile long durable;
+
+    @PostConstruct
+    public void init() throws IOException {
+        if (!enabled) {
+            return;
+        }
+        root = Path.of(directory);
+        Files.createDirectories(root);
+        segmentCapacity = (int) Math.max(1, Math.min(Integer.MAX_VALUE / JournalRecord.SIZE, segmentBytes / JournalRecord.SIZE));
+
+        List<Path> segments = segments();
+        long first = segments.isEmpty() ? 1 : JournalSegment.firstSequenceOf(segments.get(segments.size() - 1));
+        active = JournalSegment.open(root, first, segmentCapacity);
+        lastWritten = active.nextSequence() - 1;
+        durable = lastWritten;
+        prune();
+        log.info("Transfer journal opened at {} (next sequence {})", root.toAbsolutePath(), lastWritten + 1);
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        if (active != null) {
+            appendLock.lock();
+            try {
+                active.close();
+            } finally {
+                appendLock.unlock();
+            }
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Appends a record and returns its sequence. The record is visible to readers immediately
+     * but only guaranteed to survive a crash after {@link #awaitDurable(long)}.
+     */
+    public long append(JournalRecord record) {
+        appendLock.lock();
+        try {
+            if (active.isFull()) {
+                roll();
+            }
+            long sequence = lastWritten + 1;
+            record.encode(sequence, scratch);
+            active.write(scratch);
+            lastWritten = sequence;
+            appends.incrementAndGet();
+            return sequence;
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    public void awaitDurable(long sequence) {
+        if (!fsync || durable >= sequence) {
+            return;
+        }
+        syncLock.lock();
+        try {
+            if (durable >= sequence) {
+                return;
+            }
+            long target;
+            JournalSegment segment;
+            appendLock.lock();
+            try {
+                target = lastWritten;
+                segment = active;
+            } finally {
+                appendLock.unlock();
+            }
+
+            long start = System.nanoTime();
+            segment.force();
+            long elapsed = System.nanoTime() - start;
+
+            fsyncs.incrementAndGet();
+            fsyncNanos.addAndGet(elapsed);
+            if (elapsed > maxFsyncNanos) {
+                maxFsyncNanos = elapsed;
+            }
+            durable = target;
+        } finally {
+            syncLock.unlock();
+        }
+    }
+
+    /**
+     * Journals the records of the current DB transaction: they are appended now and forced
+     * before the commit, then marked committed or voided once the outcome is known. Outside a
+     * transaction they are marked committed and forced right away.
+     */
+    public void appendInTransaction(List<JournalRecord> records) {
+        if (!enabled || records.isEmpty()) {
+            return;
+        }
+        long[] sequences = new long[records.size()];
+        for (int i = 0; i < sequences.length; i++) {
+            sequences[i] = append(records.get(i));
+        }
+        long last = sequences[sequences.length - 1];
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            awaitDurable(mark(sequences, true));
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                awaitDurable(last);
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                // STATUS_UNKNOWN is treated like a rollback: replay must not trust a record it cannot confirm.
+                awaitDurable(mark(sequences, status == STATUS_COMMITTED));
+            }
+        });
+    }
+
+    private long mark(long[] sequences, boolean committed) {
+        long last = 0;
+        for (long sequence : sequences) {
+            last = append(committed ? JournalRecord.committing(sequence) : JournalRecord.voiding(sequence));
+        }
+        return last;
+    }
+
+    /**
+     * Reads every record written so far, oldest first. Appends may continue meanwhile; records
+     * written after the call started are not visited.
+     */
+    public void replay(Consumer<JournalRecord> consumer) throws IOException {
+        if (!enabled) {
+            return;
+        }
+        long upTo = lastWritten;
+        for (Path segment : segments()) {
+            if (JournalSegment.firstSequenceOf(segment) > upTo) {
+                break;
+            }
+            try {
+                JournalSegment.read(segment, upTo, consumer);
+            } catch (NoSuchFileException e) {
+                log.debug("Journal segment {} was pruned during replay", segment.getFileName());
+            }
+        }
+    }
+
+    private void roll() {
+        try {
+            JournalSegment full = active;
+            full.close();
+            active = JournalSegment.open(root, full.nextSequence(), segmentCapacity);
+            log.debug("Rolled transfer journal to {}", active.path().getFileName());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not roll transfer journal segment", e);
+        }
+        prune();
+    }
+
+    /**
+     * Deletes the oldest segments beyond the retention limit. Accounts whose records were all
+     * pruned simply no longer appear in a replay; a failed delete is retried on the next roll.
+     */
+    private void prune() {
+        if (maxSegments <= 0) {
+            return;
+        }
+        try {
+            List<Path> segments = segments();
+            for (Path segment : segments.subList(0, Math.max(0, segments.size() - maxSegments))) {
+                Files.deleteIfExists(segment);
+                log.debug("Pruned transfer journal segment {}", segment.getFileName());
+            }
+        } catch (IOException e) {
+            log.warn("Could not prune transfer journal segments: {}", e.getMessage());
+        }
+    }
+
+    private List<Path> segments() throws IOException {
+        try (Stream<Path> files = Files.list(root)) {
+            return files.filter(JournalSegment::isSegment)
+                    .sorted((a, b) -> Long.compare(JournalSegment.firstSequenceOf(a), JournalSegment.firstSequenceOf(b)))
+                    .toList();
+        }
+    }
+
+    public long lastSequence() {
+        return lastWritten;
+    }
+
+    public long appendCount() {
+        return appends.get();
+    }
+
+    public long fsyncCount() {
+        return fsyncs.get();
+    }
+
+    public double averageFsyncMillis() {
+        long count = fsyncs.get();
+        return count == 0 ? 0 : fsyncNanos.get() / 1_000_000.0 / count;
+    }
+
+    public double maxFsyncMillis() {
+        return maxFsyncNanos / 1_000_000.0;
+    }
+}
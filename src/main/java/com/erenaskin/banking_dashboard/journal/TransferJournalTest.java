@@ -0,0 +1,173 @@
+package com.erenaskin.banking_dashboard.journal;
+
+import com.erenaskin.banking_dashboard.entity.TransactionType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+class TransferJournalTest {
+
+    @TempDir
+    Path directory;
+
+    private TransferJournal journal;
+
+    @AfterEach
+    void tearDown() throws IOException {
+        journal.close();
+    }
+
+    @Test
+    void append_ShouldRoundTripRecordsAndContinueAfterReopen() throws IOException {
+        journal = open(1 << 20);
+        long first = journal.append(transfer("TR01", "TR02", "12.50", "87.50", "112.50"));
+        journal.awaitDurable(first);
+        journal.close();
+
+        journal = open(1 << 20);
+        long second = journal.append(transfer("TR02", "TR01", "2.50", "110.00", "90.00"));
+        List<JournalRecord> records = records();
+
+        assertEquals(1, first);
+        assertEquals(2, second);
+        assertEquals(2, records.size());
+        JournalRecord record = records.get(0);
+        assertEquals(TransactionType.TRANSFER, record.type());
+        assertEquals("TR01", record.senderIban());
+        assertEquals("TR02", record.receiverIban());
+        assertEquals(0, new BigDecimal("12.50").compareTo(record.amount()));
+        assertNull(record.receivedAmount());
+        assertEquals(0, new BigDecimal("112.50").compareTo(record.receiverBalanceAfter()));
+    }
+
+    @Test
+    void append_ShouldRollSegmentsWhenFull() throws IOException {
+        journal = open(3L * JournalRecord.SIZE);
+        for (int i = 0; i < 7; i++) {
+            journal.append(transfer("TR01", "TR02", "1", "1", "1"));
+        }
+
+        List<JournalRecord> records = records();
+
+        assertEquals(3, segmentCount());
+        assertEquals(7, records.size());
+        for (int i = 0; i < records.size(); i++) {
+            assertEquals(i + 1, records.get(i).sequence());
+        }
+    }
+
+    @Test
+    void open_ShouldDropTornTail() throws IOException {
+        journal = open(1 << 20);
+        for (int i = 0; i < 3; i++) {
+            journal.append(transfer("TR01", "TR02", "1", "1", "1"));
+        }
+        journal.close();
+
+        try (RandomAccessFile file = new RandomAccessFile(directory.resolve(JournalSegment.fileName(1)).toFile(), "rw")) {
+            file.seek(JournalRecord.SIZE + 40);
+            file.write(0x7F);
+        }
+
+        journal = open(1 << 20);
+        assertEquals(1, journal.lastSequence());
+        journal.append(transfer("TR03", "TR04", "5", "5", "5"));
+
+        List<JournalRecord> records = records();
+        assertEquals(2, records.size());
+        assertEquals("TR03", records.get(1).senderIban());
+    }
+
+    @Test
+    void snapshot_ShouldUseLastCommittedRecordPerAccount() throws IOException {
+        journal = open(1 << 20);
+        long committed = journal.append(transfer("TR01", "TR02", "10", "90", "110"));
+        journal.append(JournalRecord.committing(committed));
+        long rolledBack = journal.append(transfer("TR01", "TR02", "50", "40", "160"));
+        journal.append(JournalRecord.voiding(rolledBack));
+        journal.append(transfer("TR02", "TR03", "5", "105", "5"));
+
+        JournalReplay.Snapshot snapshot = replay().snapshot();
+
+        assertEquals(0, new BigDecimal("90").compareTo(snapshot.balances().get("TR01")));
+        assertEquals(0, new BigDecimal("110").compareTo(snapshot.balances().get("TR02")));
+        assertNull(snapshot.balances().get("TR03"));
+        assertEquals(1, snapshot.unconfirmed());
+    }
+
+    @Test
+    void appendInTransaction_ShouldMarkRecordsCommitted_WhenNoTransactionIsActive() throws IOException {
+        journal = open(1 << 20);
+        journal.appendInTransaction(List.of(transfer("TR01", "TR02", "10", "90", "110")));
+
+        List<JournalRecord> records = records();
+
+        assertEquals(2, records.size());
+        assertTrue(records.get(1).isCommit());
+        assertEquals(records.get(0).sequence(), records.get(1).markedSequence());
+        assertEquals(0, replay().snapshot().unconfirmed());
+    }
+
+    @Test
+    void roll_ShouldPruneSegmentsBeyondRetention() throws IOException {
+        journal = open(3L * JournalRecord.SIZE);
+        ReflectionTestUtils.setField(journal, "maxSegments", 2);
+        for (int i = 0; i < 10; i++) {
+            journal.append(transfer("TR01", "TR02", "1", "1", "1"));
+        }
+
+        List<JournalRecord> records = records();
+
+        assertEquals(2, segmentCount());
+        assertEquals(4, records.size());
+        assertEquals(7, records.get(0).sequence());
+    }
+
+    private TransferJournal open(long segmentBytes) throws IOException {
+        TransferJournal opened = new TransferJournal();
+        ReflectionTestUtils.setField(opened, "enabled", true);
+        ReflectionTestUtils.setField(opened, "directory", directory.toString());
+        ReflectionTestUtils.setField(opened, "segmentBytes", segmentBytes);
+        ReflectionTestUtils.setField(opened, "fsync", true);
+        opened.init();
+        return opened;
+    }
+
+    private JournalReplay replay() {
+        return new JournalReplay(journal, mock(JdbcTemplate.class), mock(TransactionTemplate.class));
+    }
+
+    private List<JournalRecord> records() throws IOException {
+        List<JournalRecord> records = new ArrayList<>();
+        journal.replay(records::add);
+        return records;
+    }
+
+    private long segmentCount() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(JournalSegment::isSegment).count();
+        }
+    }
+
+    private static JournalRecord transfer(String sender, String receiver, String amount,
+                                          String senderAfter, String receiverAfter) {
+        return JournalRecord.of(TransactionType.TRANSFER, sender, receiver, new BigDecimal(amount), null,
+                LocalDateTime.now(), new BigDecimal(senderAfter), new BigDecimal(receiverAfter));
+    }
+}
@@ -0,0 +1,134 @@
+package com.erenaskin.banking_dashboard.ledger;
+
+import com.erenaskin.banking_dashboard.exception.OutcomeUnknownException;
+import com.erenaskin.banking_dashboard.exception.ServiceBusyException;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+/**
+ * Single-writer executor for account balance mutations. Every IBAN is hashed onto one of a
+ * fixed number of single-threaded lanes, so updates to the same account are applied one at a
+ * time in submission order while different accounts proceed in parallel.
+ */
+@Component
+@Slf4j
+public class AccountWriteExecutor {
+
+    @Value("${ledger.writer.lanes:16}")
+    private int laneCount;
+
+    @Value("${ledger.writer.queue-capacity:10000}")
+    private int queueCapacity;
+
+    @Value("${ledger.writer.timeout-ms:10000}")
+    private long timeoutMs;
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    private final ThreadLocal<Integer> currentLane = new ThreadLocal<>();
+
+    private ThreadPoolExecutor[] lanes;
+
+    @PostConstruct
+    public void init() {
+        ThreadFactory threadFactory = virtualThreads
+                ? new VirtualThreadTaskExecutor("ledger-lane-").getVirtualThreadFactory()
+                : new CustomizableThreadFactory("ledger-lane-");
+        lanes = new ThreadPoolExecutor[laneCount];
+        for (int i = 0; i < laneCount; i++) {
+            int lane = i;
+            lanes[i] = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                    new LinkedBlockingQueue<>(queueCapacity), threadFactory);
+            lanes[i].execute(() -> currentLane.set(lane));
+        }
+        log.debug("Started {} account writer lanes", laneCount);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        for (ThreadPoolExecutor lane : lanes) {
+            lane.shutdown();
+        }
+    }
+
+    /**
+     * Runs {@code work} on the IBAN's lane and waits for it. If the wait times out or is
+     * interrupted before the lane picked the work up, the work is withdrawn and never runs
+     * ({@link ServiceBusyException}); once it has started it may still commit, which is
+     * reported as {@link OutcomeUnknownException}.
+     */
+    public <T> T execute(String iban, Supplier<T> work) {
+        int lane = laneOf(iban);
+        if (Integer.valueOf(lane).equals(currentLane.get())) {
+            return work.get();
+        }
+
+        // Set by whichever side gets there first: the lane starting the work or the caller giving up.
+        AtomicBoolean decided = new AtomicBoolean();
+        Future<T> future;
+        try {
+            future = lanes[lane].submit(() -> decided.compareAndSet(false, true) ? work.get() : null);
+        } catch (RejectedExecutionException e) {
+            throw new ServiceBusyException("Account writer is saturated, try again later");
+        }
+
+        try {
+            return future.get(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException(cause);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw abandon(decided, future, "Interrupted while waiting for account " + iban);
+        } catch (TimeoutException e) {
+            throw abandon(decided, future, "Timed out waiting for account " + iban);
+        }
+    }
+
+    private static RuntimeException abandon(AtomicBoolean decided, Future<?> future, String message) {
+        if (decided.compareAndSet(false, true)) {
+            future.cancel(false);
+            return new ServiceBusyException(message + ", nothing was written");
+        }
+        return new OutcomeUnknownException(message + ", the update may still complete");
+    }
+
+    public void run(String iban, Runnable work) {
+        execute(iban, () -> {
+            work.run();
+            return null;
+        });
+    }
+
+    public int laneCount() {
+        return lanes.length;
+    }
+
+    public int queuedTasks() {
+        int queued = 0;
+        for (ThreadPoolExecutor lane : lanes) {
+            queued += lane.getQueue().size();
+        }
+        return queued;
+    }
+
+    int laneOf(String iban) {
+        return Math.floorMod(iban.hashCode(), lanes.length);
+    }
+}
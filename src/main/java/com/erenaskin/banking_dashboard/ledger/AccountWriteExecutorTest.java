@@ -0,0 +1,112 @@
+package com.erenaskin.banking_dashboard.ledger;
+
+import com.erenaskin.banking_dashboard.exception.OutcomeUnknownException;
+import com.erenaskin.banking_dashboard.exception.ServiceBusyException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AccountWriteExecutorTest {
+
+    private AccountWriteExecutor executor;
+
+    @BeforeEach
+    void setUp() {
+        executor = new AccountWriteExecutor();
+        ReflectionTestUtils.setField(executor, "laneCount", 4);
+        ReflectionTestUtils.setField(executor, "queueCapacity", 1000);
+        ReflectionTestUtils.setField(executor, "timeoutMs", 5000L);
+        executor.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+    }
+
+    @Test
+    void execute_ShouldApplyUpdatesToSameIbanWithoutLosingAny() throws Exception {
+        long[] balance = {0};
+        ExecutorService clients = Executors.newFixedThreadPool(8);
+        List<Future<?>> futures = new ArrayList<>();
+
+        for (int i = 0; i < 1000; i++) {
+            futures.add(clients.submit(() -> executor.run("TR123", () -> balance[0]++)));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        clients.shutdown();
+
+        assertEquals(1000, balance[0]);
+    }
+
+    @Test
+    void execute_ShouldRethrowWorkException() {
+        IllegalArgumentException ex = assertThrows(IllegalArgumentException.class,
+                () -> executor.run("TR123", () -> {
+                    throw new IllegalArgumentException("Insufficient balance");
+                }));
+
+        assertEquals("Insufficient balance", ex.getMessage());
+    }
+
+    @Test
+    void execute_ShouldRunInline_WhenAlreadyOnTheAccountsLane() {
+        String result = executor.execute("TR123", () -> executor.execute("TR123", () -> "nested"));
+
+        assertEquals("nested", result);
+    }
+
+    @Test
+    void execute_ShouldWithdrawWork_WhenTimingOutBeforeItStarted() {
+        ReflectionTestUtils.setField(executor, "timeoutMs", 100L);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicBoolean ran = new AtomicBoolean();
+        CompletableFuture<Void> blocker = CompletableFuture.runAsync(() -> executor.run("TR123", () -> {
+            started.countDown();
+            await(release);
+        }));
+        await(started);
+
+        assertThrows(ServiceBusyException.class, () -> executor.run("TR123", () -> ran.set(true)));
+        release.countDown();
+        assertThrows(CompletionException.class, blocker::join);
+        executor.run("TR123", () -> { });
+
+        assertFalse(ran.get());
+    }
+
+    @Test
+    void execute_ShouldReportUnknownOutcome_WhenTimingOutAfterItStarted() {
+        ReflectionTestUtils.setField(executor, "timeoutMs", 100L);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicBoolean ran = new AtomicBoolean();
+
+        assertThrows(OutcomeUnknownException.class, () -> executor.run("TR123", () -> {
+            await(release);
+            ran.set(true);
+        }));
+        release.countDown();
+        executor.run("TR123", () -> { });
+
+        assertTrue(ran.get());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
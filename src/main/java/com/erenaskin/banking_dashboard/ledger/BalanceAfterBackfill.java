@@ -0,0 +1,145 @@
+package com.erenaskin.banking_dashboard.ledger;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * One-time job filling {@code sender_balance_after}/{@code receiver_balance_after} for rows
+ * written before those columns existed. An account's current balance and its history are read
+ * from one repeatable-read snapshot without locking anything, and the history is walked newest
+ * first, undoing one row at a time. The results are written in short transactions of
+ * {@code batch-size} rows in ascending id order. Postgres locks whole rows, so two workers
+ * filling the two columns of the same transfer row do contend, but with every worker taking
+ * row locks in the same order they can only wait, not deadlock; lock failures are retried.
+ */
+@Component
+@ConditionalOnProperty(name = "ledger.backfill.balance-after.enabled", havingValue = "true")
+@RequiredArgsConstructor
+@Slf4j
+public class BalanceAfterBackfill implements ApplicationRunner {
+
+    private static final String HISTORY =
+            "select id, sender_iban, receiver_iban, amount, coalesce(received_amount, amount) as received from transactions " +
+            "where sender_iban = ? or receiver_iban = ? order by timestamp desc, id desc";
+
+    // Only fills what is still missing; coalesce(column, null) leaves the other side untouched.
+    private static final String UPDATE =
+            "update transactions set sender_balance_after = coalesce(sender_balance_after, ?), " +
+            "receiver_balance_after = coalesce(receiver_balance_after, ?) where id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final TransferCoordinator transferCoordinator;
+
+    @Value("${ledger.backfill.balance-after.threads:4}")
+    private int threads;
+
+    @Value("${ledger.backfill.balance-after.batch-size:1000}")
+    private int batchSize;
+
+    private TransactionTemplate snapshotTemplate;
+
+    @PostConstruct
+    public void init() {
+        snapshotTemplate = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        snapshotTemplate.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        snapshotTemplate.setReadOnly(true);
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws InterruptedException {
+        List<Long> accountIds = jdbcTemplate.queryForList("select id from accounts order by id", Long.class);
+        AtomicLong rows = new AtomicLong();
+        long start = System.nanoTime();
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads, new CustomizableThreadFactory("balance-backfill-"));
+        List<Future<?>> futures = new ArrayList<>(accountIds.size());
+        for (Long accountId : accountIds) {
+            futures.add(executor.submit(() -> rows.addAndGet(backfillAccount(accountId))));
+        }
+        executor.shutdown();
+
+        int failed = 0;
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (ExecutionException e) {
+                failed++;
+                log.error("Balance backfill failed for an account", e.getCause());
+            }
+        }
+        log.info("Balance-after backfill updated {} rows across {} accounts in {} ms ({} failed)",
+                rows.get(), accountIds.size(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), failed);
+    }
+
+    long backfillAccount(long accountId) {
+        List<RowUpdate> updates = snapshotTemplate.execute(status -> {
+            var account = jdbcTemplate.queryForMap("select iban, balance from accounts where id = ?", accountId);
+            String iban = (String) account.get("iban");
+            List<HistoryRow> history = jdbcTemplate.query(HISTORY, (rs, rowNum) -> new HistoryRow(rs.getLong("id"),
+                    rs.getString("sender_iban"), rs.getString("receiver_iban"),
+                    rs.getBigDecimal("amount"), rs.getBigDecimal("received")), iban, iban);
+            return plan(iban, (BigDecimal) account.get("balance"), history);
+        });
+        return updates == null ? 0 : write(updates);
+    }
+
+    /**
+     * Balance after each row of one account's history, given newest first. Returned in
+     * ascending id order, the order {@link #write(List)} locks rows in.
+     */
+    static List<RowUpdate> plan(String iban, BigDecimal balance, List<HistoryRow> newestFirst) {
+        List<RowUpdate> updates = new ArrayList<>(newestFirst.size());
+        for (HistoryRow row : newestFirst) {
+            boolean sent = iban.equals(row.senderIban());
+            boolean received = iban.equals(row.receiverIban());
+            updates.add(new RowUpdate(row.id(), sent ? balance : null, received ? balance : null));
+
+            // Step back to the balance before this row.
+            if (sent) {
+                balance = balance.add(row.amount());
+            }
+            if (received) {
+                balance = balance.subtract(row.received());
+            }
+        }
+        updates.sort(Comparator.comparingLong(RowUpdate::id));
+        return updates;
+    }
+
+    long write(List<RowUpdate> updates) {
+        for (int from = 0; from < updates.size(); from += batchSize) {
+            List<RowUpdate> batch = updates.subList(from, Math.min(updates.size(), from + batchSize));
+            transferCoordinator.withRetry(() -> transactionTemplate.execute(status ->
+                    jdbcTemplate.batchUpdate(UPDATE, batch, batch.size(), (ps, update) -> {
+                        ps.setBigDecimal(1, update.senderAfter());
+                        ps.setBigDecimal(2, update.receiverAfter());
+                        ps.setLong(3, update.id());
+                    })));
+        }
+        return updates.size();
+    }
+
+    record HistoryRow(long id, String senderIban, String receiverIban, BigDecimal amount, BigDecimal received) {
+    }
+
+    record RowUpdate(long id, BigDecimal senderAfter, BigDecimal receiverAfter) {
+    }
+}
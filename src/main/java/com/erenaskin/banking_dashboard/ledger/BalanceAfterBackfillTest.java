@@ -0,0 +1,105 @@
+package com.erenaskin.banking_dashboard.ledger;
+
+import com.erenaskin.banking_dashboard.ledger.BalanceAfterBackfill.HistoryRow;
+import com.erenaskin.banking_dashboard.ledger.BalanceAfterBackfill.RowUpdate;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.*;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class BalanceAfterBackfillTest {
+
+    // Oldest first: deposit 100 to A, A->B 30, B->A 10, deposit 50 to B, A->A 5, withdraw 20 from A.
+    private static final List<HistoryRow> HISTORY = List.of(
+            row(1, null, "A", "100"),
+            row(2, "A", "B", "30"),
+            row(3, "B", "A", "10"),
+            row(4, null, "B", "50"),
+            row(5, "A", "A", "5"),
+            row(6, "A", null, "20"));
+
+    @Test
+    void plan_ShouldGiveEachRowTheBalancesAfterIt_ForInterleavedSendersAndReceivers() {
+        Map<Long, BigDecimal[]> rows = new HashMap<>();
+        merge(rows, BalanceAfterBackfill.plan("A", new BigDecimal("60"), newestFirst("A")));
+        merge(rows, BalanceAfterBackfill.plan("B", new BigDecimal("70"), newestFirst("B")));
+
+        assertBalances(rows.get(1L), null, "100");
+        assertBalances(rows.get(2L), "70", "30");
+        assertBalances(rows.get(3L), "20", "80");
+        assertBalances(rows.get(4L), null, "70");
+        assertBalances(rows.get(5L), "80", "80");
+        assertBalances(rows.get(6L), "60", null);
+    }
+
+    @Test
+    void plan_ShouldReturnRowsInAscendingIdOrder() {
+        List<RowUpdate> updates = BalanceAfterBackfill.plan("A", new BigDecimal("60"), newestFirst("A"));
+
+        assertEquals(List.of(1L, 2L, 3L, 5L, 6L), updates.stream().map(RowUpdate::id).toList());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void write_ShouldCommitBoundedBatchesThroughRetry() {
+        JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+        TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+        TransferCoordinator transferCoordinator = mock(TransferCoordinator.class);
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                ((TransactionCallback<Object>) invocation.getArgument(0)).doInTransaction(null));
+        when(transferCoordinator.withRetry(any())).thenAnswer(invocation ->
+                ((Supplier<Object>) invocation.getArgument(0)).get());
+        List<List<Long>> batches = new ArrayList<>();
+        when(jdbcTemplate.batchUpdate(anyString(), anyCollection(), anyInt(), any())).thenAnswer(invocation -> {
+            Collection<RowUpdate> batch = invocation.getArgument(1);
+            batches.add(batch.stream().map(RowUpdate::id).toList());
+            return new int[0][];
+        });
+
+        BalanceAfterBackfill backfill = new BalanceAfterBackfill(jdbcTemplate, transactionTemplate, transferCoordinator);
+        ReflectionTestUtils.setField(backfill, "batchSize", 2);
+        long written = backfill.write(BalanceAfterBackfill.plan("A", new BigDecimal("60"), newestFirst("A")));
+
+        assertEquals(5, written);
+        assertEquals(List.of(List.of(1L, 2L), List.of(3L, 5L), List.of(6L)), batches);
+        verify(transferCoordinator, times(3)).withRetry(any());
+    }
+
+    private static List<HistoryRow> newestFirst(String iban) {
+        List<HistoryRow> rows = new ArrayList<>(HISTORY.stream()
+                .filter(row -> iban.equals(row.senderIban()) || iban.equals(row.receiverIban()))
+                .toList());
+        Collections.reverse(rows);
+        return rows;
+    }
+
+    private static void merge(Map<Long, BigDecimal[]> rows, List<RowUpdate> updates) {
+        for (RowUpdate update : updates) {
+            BigDecimal[] balances = rows.computeIfAbsent(update.id(), id -> new BigDecimal[2]);
+            if (update.senderAfter() != null) {
+                balances[0] = update.senderAfter();
+            }
+            if (update.receiverAfter() != null) {
+                balances[1] = update.receiverAfter();
+            }
+        }
+    }
+
+    private static void assertBalances(BigDecimal[] actual, String sender, String receiver) {
+        assertEquals(sender == null ? null : new BigDecimal(sender), actual[0]);
+        assertEquals(receiver == null ? null : new BigDecimal(receiver), actual[1]);
+    }
+
+    private static HistoryRow row(long id, String sender, String receiver, String amount) {
+        return new HistoryRow(id, sender, receiver, new BigDecimal(amount), new BigDecimal(amount));
+    }
+}
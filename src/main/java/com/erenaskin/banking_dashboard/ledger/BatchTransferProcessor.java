@@ -0,0 +1,172 @@
+package com.erenaskin.banking_dashboard.ledger;
+
+import com.erenaskin.banking_dashboard.cache.IbanResolver;
+import com.erenaskin.banking_dashboard.dto.BatchTransferResult;
+import com.erenaskin.banking_dashboard.entity.Account;
+import com.erenaskin.banking_dashboard.entity.TransactionType;
+import com.erenaskin.banking_dashboard.fx.FxRateService;
+import com.erenaskin.banking_dashboard.journal.JournalRecord;
+import com.erenaskin.banking_dashboard.journal.TransferJournal;
+import com.erenaskin.banking_dashboard.repository.AccountRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * Applies a chunk of transfers in a single DB transaction: every account touched by the chunk
+ * is locked once in ascending id order, the transfers are applied in memory one by one (so an
+ * insufficient balance only fails its own item), and the resulting ledger rows and their outbox
+ * events are written with JDBC batch inserts.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class BatchTransferProcessor {
+
+    private static final String INSERT_TRANSACTION =
+            "insert into transactions (type, sender_iban, receiver_iban, amount, timestamp, account_id, sender_balance_after, receiver_balance_after, received_amount) values (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String INSERT_OUTBOX_EVENT =
+            "insert into outbox_events (transaction_id, type, sender_iban, receiver_iban, amount, occurred_at, account_id, received_amount) values (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final AccountRepository accountRepository;
+    private final IbanResolver ibanResolver;
+    private final TransferCoordinator transferCoordinator;
+    private final TransactionTemplate transactionTemplate;
+    private final JdbcTemplate jdbcTemplate;
+    private final MonthlyTotalsWriter monthlyTotalsWriter;
+    private final FxRateService fxRateService;
+    private final TransferJournal transferJournal;
+
+    public List<BatchTransferResult> apply(List<TransferCommand> commands) {
+        try {
+            return applyAtomically(commands);
+        } catch (RuntimeException e) {
+            log.error("Transfer chunk of {} items rolled back: {}", commands.size(), e.getMessage());
+            return commands.stream()
+                    .map(command -> BatchTransferResult.failed(command.index(), "Chunk rolled back: " + e.getMessage()))
+                    .toList();
+        }
+    }
+
+    /**
+     * Like {@link #apply(List)}, but a chunk that rolls back surfaces as the exception instead of
+     * a failed result per item, so the caller can decide how to retry.
+     */
+    public List<BatchTransferResult> applyAtomically(List<TransferCommand> commands) {
+        return transferCoordinator.withRetry(() -> transactionTemplate.execute(status -> applyLocked(commands)));
+    }
+
+    private List<BatchTransferResult> applyLocked(List<TransferCommand> commands) {
+        Map<String, Long> ids = new HashMap<>();
+        for (TransferCommand command : commands) {
+            ids.computeIfAbsent(command.senderIban(), iban -> ibanResolver.resolveId(iban).orElse(null));
+            ids.computeIfAbsent(command.receiverIban(), iban -> ibanResolver.resolveId(iban).orElse(null));
+        }
+
+        Map<Long, Account> accounts = new HashMap<>();
+        if (!ids.isEmpty()) {
+            for (Account account : accountRepository.findAllByIdInForUpdate(new TreeSet<>(ids.values()))) {
+                accounts.put(account.getId(), account);
+            }
+        }
+
+        List<BatchTransferResult> results = new ArrayList<>(commands.size());
+        List<Object[]> rows = new ArrayList<>(commands.size());
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+
+        for (TransferCommand command : commands) {
+            Account sender = accounts.get(ids.get(command.senderIban()));
+            Account receiver = accounts.get(ids.get(command.receiverIban()));
+
+            if (sender == null || !Objects.equals(sender.getUser().getId(), command.userId())) {
+                results.add(BatchTransferResult.failed(command.index(), "Sender IBAN not found or not owned by user"));
+                continue;
+            }
+            if (receiver == null) {
+                results.add(BatchTransferResult.failed(command.index(), "Receiver IBAN not found"));
+                continue;
+            }
+            if (sender.getBalance().compareTo(command.amount()) < 0) {
+                results.add(BatchTransferResult.failed(command.index(), "Insufficient balance"));
+                continue;
+            }
+
+            BigDecimal credited = fxRateService.convert(command.amount(), sender.getCurrency(), receiver.getCurrency());
+            sender.setBalance(sender.getBalance().subtract(command.amount()));
+            receiver.setBalance(receiver.getBalance().add(credited));
+
+            rows.add(new Object[]{
+                    TransactionType.TRANSFER.name(),
+                    sender.getIban(),
+                    receiver.getIban(),
+                    command.amount(),
+                    now,
+                    sender.getId(),
+                    sender.getBalance(),
+                    receiver.getBalance(),
+                    sender.getCurrency() == receiver.getCurrency() ? null : credited
+            });
+            results.add(BatchTransferResult.success(command.index()));
+        }
+
+        accountRepository.flush();
+        if (!rows.isEmpty()) {
+            insertWithOutbox(rows);
+        }
+        return results;
+    }
+
+    private void insertWithOutbox(List<Object[]> rows) {
+        KeyHolder keys = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(
+                connection -> connection.prepareStatement(INSERT_TRANSACTION, new String[]{"id"}),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        Object[] row = rows.get(i);
+                        for (int column = 0; column < row.length; column++) {
+                            ps.setObject(column + 1, row[column]);
+                        }
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return rows.size();
+                    }
+                },
+                keys);
+
+        List<Map<String, Object>> generated = keys.getKeyList();
+        List<Object[]> events = new ArrayList<>(rows.size());
+        for (int i = 0; i < rows.size(); i++) {
+            Object[] row = rows.get(i);
+            long transactionId = ((Number) generated.get(i).get("id")).longValue();
+            events.add(new Object[]{transactionId, row[0], row[1], row[2], row[3], row[4], row[5], row[8]});
+        }
+        jdbcTemplate.batchUpdate(INSERT_OUTBOX_EVENT, events);
+
+        List<Object[]> totals = new ArrayList<>(rows.size());
+        List<JournalRecord> journal = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            LocalDateTime timestamp = ((Timestamp) row[4]).toLocalDateTime();
+            totals.add(new Object[]{TransactionType.TRANSFER, row[1], row[2], row[3], row[8], timestamp});
+            journal.add(JournalRecord.of(TransactionType.TRANSFER, (String) row[1], (String) row[2], (BigDecimal) row[3],
+                    (BigDecimal) row[8], timestamp, (BigDecimal) row[6], (BigDecimal) row[7]));
+        }
+        monthlyTotalsWriter.applyAll(totals);
+        transferJournal.appendInTransaction(journal);
+    }
+}
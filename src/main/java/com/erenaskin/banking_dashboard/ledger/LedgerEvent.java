@@ -0,0 +1,31 @@
+package com.erenaskin.banking_dashboard.ledger;
+
+import com.erenaskin.banking_dashboard.entity.OutboxEvent;
+import com.erenaskin.banking_dashboard.entity.TransactionType;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * A committed ledger write as seen by subscribers. {@code eventId} is the outbox row id; it is
+ * stable across redeliveries and increases in commit order for a given account.
+ * {@code receivedAmount} is what the receiver was credited in its own currency, null when no
+ * conversion took place.
+ */
+public record LedgerEvent(
+        long eventId,
+        long transactionId,
+        Long accountId,
+        TransactionType type,
+        String senderIban,
+        String receiverIban,
+        BigDecimal amount,
+        BigDecimal receivedAmount,
+        LocalDateTime occurredAt
+) {
+    static LedgerEvent of(OutboxEvent row) {
+        return new LedgerEvent(row.getId(), row.getTransactionId(), row.getAccountId(), row.getType(),
+                row.getSenderIban(), row.getReceiverIban(), row.getAmount(), row.getReceivedAmount(),
+                row.getOccurredAt());
+    }
+}
@@ -0,0 +1,155 @@
+package com.erenaskin.banking_dashboard.ledger;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-process fan-out of ledger events to every {@link LedgerEventSubscriber} bean. An event
+ * affects both its sender and its receiver IBAN, so the batch is split into groups of events
+ * connected through a shared IBAN; each group is dispatched sequentially in event order and
+ * different groups in parallel, which keeps every account's events in order on both sides of
+ * a transfer. Once an event fails, the rest of its group is held back so a redelivery never
+ * overtakes an earlier event.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class LedgerEventBus {
+
+    private final ObjectProvider<LedgerEventSubscriber> subscriberProvider;
+
+    @Value("${outbox.dispatch.threads:8}")
+    private int threads;
+
+    private final AtomicLong delivered = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+
+    private List<LedgerEventSubscriber> subscribers;
+    private ExecutorService executor;
+
+    @PostConstruct
+    public void init() {
+        subscribers = subscriberProvider.orderedStream().toList();
+        executor = Executors.newFixedThreadPool(threads, new CustomizableThreadFactory("ledger-event-"));
+        log.debug("Ledger event bus started with {} subscribers", subscribers.size());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    /**
+     * Dispatches {@code events} (in ascending event id order) and reports which events every
+     * subscriber accepted and which one failed in each group.
+     */
+    public Delivery publish(List<LedgerEvent> events) {
+        List<Future<Delivery>> futures = new ArrayList<>();
+        for (List<LedgerEvent> group : groups(events)) {
+            futures.add(executor.submit(() -> dispatchInOrder(group)));
+        }
+
+        Set<Long> acknowledged = new HashSet<>();
+        Set<Long> failedIds = new HashSet<>();
+        for (Future<Delivery> future : futures) {
+            try {
+                Delivery delivery = future.get();
+                acknowledged.addAll(delivery.acknowledged());
+                failedIds.addAll(delivery.failed());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (ExecutionException e) {
+                log.error("Ledger event dispatch failed", e.getCause());
+            }
+        }
+        return new Delivery(acknowledged, failedIds);
+    }
+
+    /**
+     * Splits events into groups that share no IBAN (union-find over sender and receiver),
+     * keeping event order within each group.
+     */
+    static Collection<List<LedgerEvent>> groups(List<LedgerEvent> events) {
+        Map<String, String> parent = new HashMap<>();
+        for (LedgerEvent event : events) {
+            String sender = root(parent, key(event.senderIban(), event));
+            String receiver = root(parent, key(event.receiverIban(), event));
+            if (!sender.equals(receiver)) {
+                parent.put(receiver, sender);
+            }
+        }
+
+        Map<String, List<LedgerEvent>> groups = new LinkedHashMap<>();
+        for (LedgerEvent event : events) {
+            groups.computeIfAbsent(root(parent, key(event.senderIban(), event)), id -> new ArrayList<>()).add(event);
+        }
+        return groups.values();
+    }
+
+    // A missing side falls back to the other one, and an event with neither stands alone.
+    private static String key(String iban, LedgerEvent event) {
+        if (iban != null) {
+            return iban;
+        }
+        if (event.senderIban() != null) {
+            return event.senderIban();
+        }
+        return event.receiverIban() != null ? event.receiverIban() : "#" + event.eventId();
+    }
+
+    private static String root(Map<String, String> parent, String key) {
+        String root = key;
+        for (String next = parent.get(root); next != null; next = parent.get(root)) {
+            root = next;
+        }
+        if (!root.equals(key)) {
+            parent.put(key, root);
+        }
+        return root;
+    }
+
+    private Delivery dispatchInOrder(List<LedgerEvent> events) {
+        List<Long> acknowledged = new ArrayList<>(events.size());
+        for (LedgerEvent event : events) {
+            try {
+                for (LedgerEventSubscriber subscriber : subscribers) {
+                    subscriber.onEvent(event);
+                }
+            } catch (RuntimeException e) {
+                failed.incrementAndGet();
+                log.warn("Subscriber failed on ledger event {}, holding back {} later events that share an account: {}",
+                        event.eventId(), events.size() - acknowledged.size() - 1, e.getMessage());
+                return new Delivery(Set.copyOf(acknowledged), Set.of(event.eventId()));
+            }
+            acknowledged.add(event.eventId());
+            delivered.incrementAndGet();
+        }
+        return new Delivery(Set.copyOf(acknowledged), Set.of());
+    }
+
+    public int subscriberCount() {
+        return subscribers.size();
+    }
+
+    public long deliveredCount() {
+        return delivered.get();
+    }
+
+    public long failedCount() {
+        return failed.get();
+    }
+
+    public record Delivery(Set<Long> acknowledged, Set<Long> failed) {
+    }
+}
@@ -0,0 +1,93 @@
+package com.erenaskin.banking_dashboard.ledger;
+
+import com.erenaskin.banking_dashboard.entity.TransactionType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class LedgerEventBusTest {
+
+    private final List<Long> received = new CopyOnWriteArrayList<>();
+    private LedgerEventBus bus;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        LedgerEventSubscriber subscriber = event -> {
+            if (event.eventId() == 3L) {
+                throw new IllegalStateException("subscriber down");
+            }
+            received.add(event.eventId());
+        };
+        ObjectProvider<LedgerEventSubscriber> provider = mock(ObjectProvider.class);
+        when(provider.orderedStream()).thenReturn(Stream.of(subscriber));
+
+        bus = new LedgerEventBus(provider);
+        ReflectionTestUtils.setField(bus, "threads", 4);
+        bus.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        bus.shutdown();
+    }
+
+    @Test
+    void publish_ShouldKeepAccountOrderAndHoldBackAfterFailure() {
+        List<LedgerEvent> events = List.of(event(1, 10L), event(2, 20L), event(3, 10L), event(4, 10L), event(5, 20L));
+
+        LedgerEventBus.Delivery delivery = bus.publish(events);
+
+        assertEquals(Set.of(1L, 2L, 5L), delivery.acknowledged());
+        assertEquals(Set.of(3L), delivery.failed());
+        assertFalse(received.contains(4L));
+        assertTrue(received.indexOf(2L) < received.indexOf(5L));
+        assertEquals(1, bus.failedCount());
+    }
+
+    @Test
+    void publish_ShouldHoldBackReceiverEvents_WhenEarlierTransferToItFailed() {
+        // Event 3 moves money from TR10 to TR20, so TR20's later event 5 must wait for it too.
+        List<LedgerEvent> events = List.of(event(1, 10L), event(2, 20L), transfer(3, "TR10", "TR20"),
+                event(4, 30L), event(5, 20L));
+
+        LedgerEventBus.Delivery delivery = bus.publish(events);
+
+        assertEquals(Set.of(1L, 2L, 4L), delivery.acknowledged());
+        assertFalse(received.contains(5L));
+    }
+
+    @Test
+    void groups_ShouldJoinEventsThatShareEitherIban() {
+        List<LedgerEvent> events = List.of(transfer(1, "A", "B"), transfer(2, "C", "D"), transfer(3, "B", "C"),
+                event(4, 99L), transfer(5, "D", "E"));
+
+        List<List<Long>> groups = LedgerEventBus.groups(events).stream()
+                .map(group -> group.stream().map(LedgerEvent::eventId).toList())
+                .toList();
+
+        assertEquals(List.of(List.of(1L, 2L, 3L, 5L), List.of(4L)), groups);
+    }
+
+    private static LedgerEvent event(long id, Long accountId) {
+        return new LedgerEvent(id, id, accountId, TransactionType.DEPOSIT, null, "TR" + accountId,
+                BigDecimal.ONE, null, LocalDateTime.now());
+    }
+
+    private static LedgerEvent transfer(long id, String sender, String receiver) {
+        return new LedgerEvent(id, id, null, TransactionType.TRANSFER, sender, receiver,
+                BigDecimal.ONE, null, LocalDateTime.now());
+    }
+}
@@ -0,0 +1,11 @@
+package com.erenaskin.banking_dashboard.ledger;
+
+/**
+ * Receives committed ledger events. Delivery is at-least-once, so implementations must tolerate
+ * seeing the same {@link LedgerEvent#eventId()} again; throwing leaves the event (and any later
+ * events of the same account) in the outbox for the next drain.
+ */
+public interface LedgerEventSubscriber {
+
+    void onEvent(LedgerEvent event);
+}
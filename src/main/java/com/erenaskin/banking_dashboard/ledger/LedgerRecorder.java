@@ -0,0 +1,48 @@
+package com.erenaskin.banking_dashboard.ledger;
+
+import com.erenaskin.banking_dashboard.entity.OutboxEvent;
+import com.erenaskin.banking_dashboard.entity.Transaction;
+import com.erenaskin.banking_dashboard.journal.JournalRecord;
+import com.erenaskin.banking_dashboard.journal.TransferJournal;
+import com.erenaskin.banking_dashboard.repository.OutboxEventRepository;
+import com.erenaskin.banking_dashboard.repository.TransactionRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/**
+ * Single write path for ledger rows: saves the {@link Transaction}, its outbox event and the
+ * monthly totals in the caller's transaction, so all of them exist if and only if the write
+ * committed. The row is also appended to the {@link TransferJournal} when it is enabled.
+ */
+@Component
+@RequiredArgsConstructor
+public class LedgerRecorder {
+
+    private final TransactionRepository transactionRepository;
+    private final OutboxEventRepository outboxEventRepository;
+    private final MonthlyTotalsWriter monthlyTotalsWriter;
+    private final TransferJournal transferJournal;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public Transaction record(Transaction transaction) {
+        Transaction saved = transactionRepository.save(transaction);
+        outboxEventRepository.save(OutboxEvent.builder()
+                .transactionId(saved.getId())
+                .accountId(saved.getAccount() != null ? saved.getAccount().getId() : null)
+                .type(saved.getType())
+                .senderIban(saved.getSenderIban())
+                .receiverIban(saved.getReceiverIban())
+                .amount(saved.getAmount())
+                .receivedAmount(saved.getReceivedAmount())
+                .occurredAt(saved.getTimestamp())
+                .build());
+        monthlyTotalsWriter.apply(saved.getType(), saved.getSenderIban(), saved.getReceiverIban(),
+                saved.getAmount(), saved.getReceivedAmount(), saved.getTimestamp());
+        transferJournal.appendInTransaction(List.of(JournalRecord.of(saved)));
+        return saved;
+    }
+}
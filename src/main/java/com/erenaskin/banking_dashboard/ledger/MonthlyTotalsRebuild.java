@@ -0,0 +1,95 @@
+package com.erenaskin.banking_dashboard.ledger;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Recomputes {@code account_monthly_totals} from {@code transactions}. Accounts are split into
+ * id ranges processed in parallel; each range locks its accounts, deletes their totals and
+ * re-inserts them with one aggregate query, so ledger writes to those accounts wait for the
+ * range instead of being lost or double counted.
+ */
+@Component
+@ConditionalOnProperty(name = "ledger.aggregates.rebuild.enabled", havingValue = "true")
+@RequiredArgsConstructor
+@Slf4j
+public class MonthlyTotalsRebuild implements ApplicationRunner {
+
+    private static final String LOCK_RANGE =
+            "select id from accounts where id between ? and ? order by id for update";
+
+    private static final String DELETE_RANGE =
+            "delete from account_monthly_totals where account_id between ? and ?";
+
+    private static final String INSERT_RANGE =
+            "insert into account_monthly_totals (account_id, month, type, inflow, outflow, tx_count) " +
+            "select a.id, cast(date_trunc('month', t.timestamp) as date), t.type, " +
+            "sum(case when t.receiver_iban = a.iban then coalesce(t.received_amount, t.amount) else 0 end), " +
+            "sum(case when t.sender_iban = a.iban then t.amount else 0 end), " +
+            "count(*) " +
+            "from accounts a join transactions t on t.sender_iban = a.iban or t.receiver_iban = a.iban " +
+            "where a.id between ? and ? " +
+            "group by a.id, cast(date_trunc('month', t.timestamp) as date), t.type";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${ledger.aggregates.rebuild.threads:4}")
+    private int threads;
+
+    @Value("${ledger.aggregates.rebuild.accounts-per-chunk:500}")
+    private int accountsPerChunk;
+
+    @Override
+    public void run(ApplicationArguments args) throws InterruptedException {
+        Long maxId = jdbcTemplate.queryForObject("select max(id) from accounts", Long.class);
+        if (maxId == null) {
+            return;
+        }
+
+        AtomicLong rows = new AtomicLong();
+        long start = System.nanoTime();
+        ExecutorService executor = Executors.newFixedThreadPool(threads, new CustomizableThreadFactory("totals-rebuild-"));
+        List<Future<?>> futures = new ArrayList<>();
+        for (long from = 1; from <= maxId; from += accountsPerChunk) {
+            long lo = from;
+            long hi = Math.min(maxId, from + accountsPerChunk - 1);
+            futures.add(executor.submit(() -> rows.addAndGet(rebuildRange(lo, hi))));
+        }
+        executor.shutdown();
+
+        int failed = 0;
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (ExecutionException e) {
+                failed++;
+                log.error("Monthly totals rebuild failed for a chunk", e.getCause());
+            }
+        }
+        log.info("Rebuilt {} monthly total rows in {} chunks in {} ms ({} failed)",
+                rows.get(), futures.size(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), failed);
+    }
+
+    long rebuildRange(long fromId, long toId) {
+        Integer inserted = transactionTemplate.execute(status -> {
+            jdbcTemplate.queryForList(LOCK_RANGE, Long.class, fromId, toId);
+            jdbcTemplate.update(DELETE_RANGE, fromId, toId);
+            return jdbcTemplate.update(INSERT_RANGE, fromId, toId);
+        });
+        return inserted == null ? 0 : inserted;
+    }
+}
@@ -0,0 +1,74 @@
+package com.erenaskin.banking_dashboard.ledger;
+
+import com.erenaskin.banking_dashboard.entity.TransactionType;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Folds ledger writes into {@code account_monthly_totals} with one upsert per affected account.
+ * Must run inside the ledger write's transaction; the accounts are already locked there, so
+ * concurrent upserts of the same row are serialised by the account lock.
+ */
+@Component
+@RequiredArgsConstructor
+public class MonthlyTotalsWriter {
+
+    private static final String UPSERT =
+            "insert into account_monthly_totals (account_id, month, type, inflow, outflow, tx_count) " +
+            "select a.id, ?, ?, ?, ?, 1 from accounts a where a.iban = ? " +
+            "on conflict (account_id, month, type) do update set " +
+            "inflow = account_monthly_totals.inflow + excluded.inflow, " +
+            "outflow = account_monthly_totals.outflow + excluded.outflow, " +
+            "tx_count = account_monthly_totals.tx_count + 1";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public void apply(TransactionType type, String senderIban, String receiverIban,
+                      BigDecimal amount, BigDecimal receivedAmount, LocalDateTime timestamp) {
+        List<Object[]> rows = new ArrayList<>(2);
+        addRows(rows, type, senderIban, receiverIban, amount, receivedAmount, timestamp);
+        jdbcTemplate.batchUpdate(UPSERT, rows);
+    }
+
+    /**
+     * Batch variant; each entry is {@code {type, senderIban, receiverIban, amount, receivedAmount, timestamp}}.
+     */
+    public void applyAll(List<Object[]> writes) {
+        List<Object[]> rows = new ArrayList<>(writes.size() * 2);
+        for (Object[] write : writes) {
+            addRows(rows, (TransactionType) write[0], (String) write[1], (String) write[2],
+                    (BigDecimal) write[3], (BigDecimal) write[4], (LocalDateTime) write[5]);
+        }
+        if (!rows.isEmpty()) {
+            jdbcTemplate.batchUpdate(UPSERT, rows);
+        }
+    }
+
+    /**
+     * One row per account the write touches, so every transaction counts once per account. A
+     * transfer to the same account is a single row with both an inflow and an outflow, which is
+     * also how {@link MonthlyTotalsRebuild} counts it.
+     */
+    private static void addRows(List<Object[]> rows, TransactionType type, String senderIban, String receiverIban,
+                                BigDecimal amount, BigDecimal receivedAmount, LocalDateTime timestamp) {
+        Date month = Date.valueOf(timestamp.toLocalDate().withDayOfMonth(1));
+        BigDecimal inflow = receivedAmount != null ? receivedAmount : amount;
+        if (senderIban != null && senderIban.equals(receiverIban)) {
+            rows.add(new Object[]{month, type.name(), inflow, amount, senderIban});
+            return;
+        }
+        if (senderIban != null) {
+            rows.add(new Object[]{month, type.name(), BigDecimal.ZERO, amount, senderIban});
+        }
+        if (receiverIban != null) {
+            rows.add(new Object[]{month, type.name(), inflow, BigDecimal.ZERO, receiverIban});
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.erenaskin.banking_dashboard.ledger;
+
+import com.erenaskin.banking_dashboard.entity.TransactionType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class MonthlyTotalsWriterTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2025, 7, 9, 12, 0);
+
+    private JdbcTemplate jdbcTemplate;
+    private MonthlyTotalsWriter writer;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = mock(JdbcTemplate.class);
+        writer = new MonthlyTotalsWriter(jdbcTemplate);
+    }
+
+    @Test
+    void apply_ShouldUpsertSenderAndReceiver_ForTransfer() {
+        writer.apply(TransactionType.TRANSFER, "TR1", "TR2", new BigDecimal("10"), new BigDecimal("320"), NOW);
+
+        List<Object[]> rows = upserts();
+        assertEquals(2, rows.size());
+        assertRow(rows.get(0), "0", "10", "TR1");
+        assertRow(rows.get(1), "320", "0", "TR2");
+    }
+
+    @Test
+    void apply_ShouldCountSelfTransferOnce_LikeRebuild() {
+        writer.apply(TransactionType.TRANSFER, "TR1", "TR1", new BigDecimal("10"), null, NOW);
+
+        List<Object[]> rows = upserts();
+        assertEquals(1, rows.size());
+        assertRow(rows.get(0), "10", "10", "TR1");
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Object[]> upserts() {
+        ArgumentCaptor<List<Object[]>> rows = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(anyString(), rows.capture());
+        return rows.getValue();
+    }
+
+    private static void assertRow(Object[] row, String inflow, String outflow, String iban) {
+        assertEquals(new BigDecimal(inflow), row[2]);
+        assertEquals(new BigDecimal(outflow), row[3]);
+        assertEquals(iban, row[4]);
+    }
+}
@@ -0,0 +1,81 @@
+package com.erenaskin.banking_dashboard.ledger;
+
+import com.erenaskin.banking_dashboard.entity.OutboxEvent;
+import com.erenaskin.banking_dashboard.repository.OutboxEventRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Drains the outbox in id order and hands the events to the {@link LedgerEventBus}. Only one
+ * node relays at a time: each batch first takes a transaction-scoped advisory lock and nodes
+ * that miss it skip the round. Otherwise a second node could take the later events of an
+ * account while the first still holds its earlier ones, and the bus's per-account ordering
+ * would no longer hold across nodes. Rows are deleted only once every subscriber accepted them, so a crash or a failing subscriber results in redelivery rather
+ * than loss. An event that fails {@code outbox.relay.max-attempts} times is parked: it stays in
+ * the table for inspection but is no longer picked up, so a poison event cannot block the
+ * events behind it or fill every batch.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class OutboxRelay {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final LedgerEventBus ledgerEventBus;
+    private final TransactionTemplate transactionTemplate;
+
+    // Advisory lock key shared by every node's relay ("outbox" in ASCII).
+    static final long RELAY_LOCK_KEY = 0x6f7574626f78L;
+
+    @Value("${outbox.relay.batch-size:500}")
+    private int batchSize;
+
+    @Value("${outbox.relay.max-attempts:10}")
+    private int maxAttempts;
+
+    @Scheduled(fixedDelayString = "${outbox.relay.interval-ms:500}")
+    public void drain() {
+        int drained;
+        do {
+            Integer count = transactionTemplate.execute(status -> drainBatch());
+            drained = count == null ? 0 : count;
+        } while (drained == batchSize);
+    }
+
+    private int drainBatch() {
+        if (!outboxEventRepository.tryLockRelay(RELAY_LOCK_KEY)) {
+            log.debug("Another node is relaying the outbox");
+            return 0;
+        }
+        List<OutboxEvent> rows = outboxEventRepository.lockNextBatch(batchSize);
+        if (rows.isEmpty()) {
+            return 0;
+        }
+
+        LedgerEventBus.Delivery delivery = ledgerEventBus.publish(rows.stream().map(LedgerEvent::of).toList());
+        Set<Long> acknowledged = delivery.acknowledged();
+        if (!acknowledged.isEmpty()) {
+            outboxEventRepository.deleteAllByIdInBatch(acknowledged);
+        }
+        if (!delivery.failed().isEmpty()) {
+            outboxEventRepository.recordFailures(delivery.failed());
+            int parked = outboxEventRepository.parkExhausted(delivery.failed(), maxAttempts, LocalDateTime.now());
+            if (parked > 0) {
+                log.error("Parked {} of the failing outbox events {} after {} attempts", parked, delivery.failed(), maxAttempts);
+            }
+        }
+        if (acknowledged.size() < rows.size()) {
+            log.warn("{} of {} outbox events will be redelivered", rows.size() - acknowledged.size(), rows.size());
+            return 0;
+        }
+        return rows.size();
+    }
+}
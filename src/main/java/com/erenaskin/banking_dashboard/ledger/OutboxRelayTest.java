@@ -0,0 +1,61 @@
+package com.erenaskin.banking_dashboard.ledger;
+
+import com.erenaskin.banking_dashboard.entity.OutboxEvent;
+import com.erenaskin.banking_dashboard.entity.TransactionType;
+import com.erenaskin.banking_dashboard.repository.OutboxEventRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class OutboxRelayTest {
+
+    private OutboxEventRepository outboxEventRepository;
+    private LedgerEventBus ledgerEventBus;
+    private OutboxRelay relay;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        outboxEventRepository = mock(OutboxEventRepository.class);
+        ledgerEventBus = mock(LedgerEventBus.class);
+        TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                ((TransactionCallback<Object>) invocation.getArgument(0)).doInTransaction(null));
+        relay = new OutboxRelay(outboxEventRepository, ledgerEventBus, transactionTemplate);
+        ReflectionTestUtils.setField(relay, "batchSize", 500);
+        ReflectionTestUtils.setField(relay, "maxAttempts", 10);
+    }
+
+    @Test
+    void drain_ShouldSkipRound_WhenAnotherNodeHoldsRelayLock() {
+        when(outboxEventRepository.tryLockRelay(OutboxRelay.RELAY_LOCK_KEY)).thenReturn(false);
+
+        relay.drain();
+
+        verify(outboxEventRepository, never()).lockNextBatch(anyInt());
+        verifyNoInteractions(ledgerEventBus);
+    }
+
+    @Test
+    void drain_ShouldPublishAndDelete_WhenHoldingRelayLock() {
+        OutboxEvent event = OutboxEvent.builder().id(1L).transactionId(1L).type(TransactionType.DEPOSIT)
+                .receiverIban("TR1").amount(BigDecimal.ONE).occurredAt(LocalDateTime.now()).build();
+        when(outboxEventRepository.tryLockRelay(OutboxRelay.RELAY_LOCK_KEY)).thenReturn(true);
+        when(outboxEventRepository.lockNextBatch(500)).thenReturn(List.of(event));
+        when(ledgerEventBus.publish(anyList())).thenReturn(new LedgerEventBus.Delivery(Set.of(1L), Set.of()));
+
+        relay.drain();
+
+        verify(outboxEventRepository).deleteAllByIdInBatch(Set.of(1L));
+    }
+}
@@ -0,0 +1,11 @@
+package com.erenaskin.banking_dashboard.ledger;
+
+import java.math.BigDecimal;
+
+public record TransferCommand(
+        int index,
+        Long userId,
+        String senderIban,
+        String receiverIban,
+        BigDecimal amount
+) {}
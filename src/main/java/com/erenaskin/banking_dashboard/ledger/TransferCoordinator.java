@@ -0,0 +1,116 @@
+package com.erenaskin.banking_dashboard.ledger;
+
+import com.erenaskin.banking_dashboard.entity.Account;
+import com.erenaskin.banking_dashboard.repository.AccountRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiFunction;
+import java.util.function.Supplier;
+
+/**
+ * Runs two-account balance changes under row locks taken in ascending id order, so opposite
+ * direction transfers between the same pair can never deadlock. {@code Account.version} is the
+ * fallback for writers that did not lock; any concurrency failure is retried a bounded number
+ * of times with jittered exponential backoff.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class TransferCoordinator {
+
+    private final AccountRepository accountRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${ledger.transfer.max-attempts:5}")
+    private int maxAttempts;
+
+    @Value("${ledger.transfer.backoff-ms:5}")
+    private long backoffMs;
+
+    @Value("${ledger.transfer.max-backoff-ms:200}")
+    private long maxBackoffMs;
+
+    private final AtomicLong retries = new AtomicLong();
+    private final AtomicLong optimisticConflicts = new AtomicLong();
+    private final AtomicLong lockConflicts = new AtomicLong();
+    private final AtomicLong exhausted = new AtomicLong();
+
+    public <T> T transfer(Long senderId, Long receiverId, BiFunction<Account, Account, T> work) {
+        return withRetry(() -> transactionTemplate.execute(status -> {
+            if (senderId.equals(receiverId)) {
+                Account account = lock(senderId);
+                return work.apply(account, account);
+            }
+            Account sender;
+            Account receiver;
+            if (senderId.compareTo(receiverId) < 0) {
+                sender = lock(senderId);
+                receiver = lock(receiverId);
+            } else {
+                receiver = lock(receiverId);
+                sender = lock(senderId);
+            }
+            return work.apply(sender, receiver);
+        }));
+    }
+
+    public <T> T withRetry(Supplier<T> attempt) {
+        for (int i = 1; ; i++) {
+            try {
+                return attempt.get();
+            } catch (ConcurrencyFailureException e) {
+                if (e instanceof OptimisticLockingFailureException) {
+                    optimisticConflicts.incrementAndGet();
+                } else {
+                    lockConflicts.incrementAndGet();
+                }
+                if (i >= maxAttempts) {
+                    exhausted.incrementAndGet();
+                    log.warn("Giving up after {} attempts: {}", i, e.getMessage());
+                    throw e;
+                }
+                retries.incrementAndGet();
+                backoff(i);
+            }
+        }
+    }
+
+    public long retryCount() {
+        return retries.get();
+    }
+
+    public long optimisticConflictCount() {
+        return optimisticConflicts.get();
+    }
+
+    public long lockConflictCount() {
+        return lockConflicts.get();
+    }
+
+    public long exhaustedCount() {
+        return exhausted.get();
+    }
+
+    private Account lock(Long id) {
+        return accountRepository.findByIdForUpdate(id)
+                .orElseThrow(() -> new IllegalArgumentException("Account not found: " + id));
+    }
+
+    private void backoff(int attempt) {
+        long ceiling = Math.min(maxBackoffMs, backoffMs << Math.min(attempt - 1, 16));
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(ceiling + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while retrying transfer", e);
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.erenaskin.banking_dashboard.ledger;
+
+import com.erenaskin.banking_dashboard.repository.AccountRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+class TransferCoordinatorTest {
+
+    private TransferCoordinator coordinator;
+
+    @BeforeEach
+    void setUp() {
+        coordinator = new TransferCoordinator(mock(AccountRepository.class), mock(TransactionTemplate.class));
+        ReflectionTestUtils.setField(coordinator, "maxAttempts", 3);
+        ReflectionTestUtils.setField(coordinator, "backoffMs", 1L);
+        ReflectionTestUtils.setField(coordinator, "maxBackoffMs", 2L);
+    }
+
+    @Test
+    void withRetry_ShouldRetryConflictsUntilSuccess() {
+        AtomicInteger attempts = new AtomicInteger();
+
+        String result = coordinator.withRetry(() -> {
+            if (attempts.incrementAndGet() < 3) {
+                throw new OptimisticLockingFailureException("version changed");
+            }
+            return "done";
+        });
+
+        assertEquals("done", result);
+        assertEquals(2, coordinator.retryCount());
+        assertEquals(2, coordinator.optimisticConflictCount());
+    }
+
+    @Test
+    void withRetry_ShouldGiveUpAfterMaxAttempts() {
+        assertThrows(PessimisticLockingFailureException.class, () -> coordinator.withRetry(() -> {
+            throw new PessimisticLockingFailureException("lock not available");
+        }));
+
+        assertEquals(3, coordinator.lockConflictCount());
+        assertEquals(1, coordinator.exhaustedCount());
+    }
+
+    @Test
+    void withRetry_ShouldNotRetryBusinessErrors() {
+        AtomicInteger attempts = new AtomicInteger();
+
+        assertThrows(IllegalArgumentException.class, () -> coordinator.withRetry(() -> {
+            attempts.incrementAndGet();
+            throw new IllegalArgumentException("Insufficient balance");
+        }));
+
+        assertEquals(1, attempts.get());
+    }
+}
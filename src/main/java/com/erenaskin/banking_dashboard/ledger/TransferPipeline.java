@@ -0,0 +1,208 @@
+package com.erenaskin.banking_dashboard.ledger;
+
+import com.erenaskin.banking_dashboard.dto.BatchTransferResult;
+import com.erenaskin.banking_dashboard.exception.OutcomeUnknownException;
+import com.erenaskin.banking_dashboard.exception.ServiceBusyException;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Group-commit front end for single transfers. Callers put their transfer on a bounded ring
+ * buffer and wait; drainer threads take whatever has queued up (up to {@code batch-size}, waiting
+ * at most {@code max-delay-ms} for more) and apply it with {@link BatchTransferProcessor} in one
+ * DB transaction. Items are still checked one by one inside the batch, so an insufficient
+ * balance fails only its own caller. If a whole batch rolls back, its items are retried one at a
+ * time so a single bad item cannot fail its neighbours. Like batch transfers, the pipeline
+ * does not use the {@link AccountWriteExecutor} lanes: a batch spans many accounts, and the
+ * processor's row locks are what keep it correct.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class TransferPipeline {
+
+    private final BatchTransferProcessor batchTransferProcessor;
+
+    @Value("${ledger.pipeline.enabled:false}")
+    private boolean enabled;
+
+    @Value("${ledger.pipeline.capacity:8192}")
+    private int capacity;
+
+    @Value("${ledger.pipeline.batch-size:256}")
+    private int batchSize;
+
+    @Value("${ledger.pipeline.max-delay-ms:2}")
+    private long maxDelayMs;
+
+    @Value("${ledger.pipeline.workers:1}")
+    private int workers;
+
+    @Value("${ledger.pipeline.timeout-ms:10000}")
+    private long timeoutMs;
+
+    private final AtomicLong batches = new AtomicLong();
+    private final AtomicLong transfers = new AtomicLong();
+    private final AtomicLong fallbacks = new AtomicLong();
+
+    private BlockingQueue<Pending> ring;
+    private ExecutorService drainers;
+    private volatile boolean running;
+
+    @PostConstruct
+    public void init() {
+        if (!enabled) {
+            return;
+        }
+        ring = new ArrayBlockingQueue<>(capacity);
+        running = true;
+        drainers = Executors.newFixedThreadPool(workers, new CustomizableThreadFactory("transfer-pipeline-"));
+        for (int i = 0; i < workers; i++) {
+            drainers.execute(this::drain);
+        }
+        log.debug("Started transfer pipeline with {} drainers, batches of up to {}", workers, batchSize);
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        if (drainers == null) {
+            return;
+        }
+        running = false;
+        drainers.shutdown();
+        if (!drainers.awaitTermination(timeoutMs, TimeUnit.MILLISECONDS)) {
+            drainers.shutdownNow();
+        }
+        List<Pending> left = new ArrayList<>();
+        ring.drainTo(left);
+        left.forEach(pending -> pending.result.completeExceptionally(
+                new ServiceBusyException("Transfer pipeline is shutting down")));
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Queues a transfer and blocks until its batch committed or rolled back. Returns the
+     * item's own outcome. A full ring buffer fails fast with {@link ServiceBusyException}; once
+     * queued, a batch that does not finish in time fails with {@link OutcomeUnknownException},
+     * since the transfer may still commit.
+     */
+    public BatchTransferResult transfer(Long userId, String senderIban, String receiverIban, BigDecimal amount) {
+        Pending pending = new Pending(userId, senderIban, receiverIban, amount, new CompletableFuture<>());
+        if (!running || !ring.offer(pending)) {
+            throw new ServiceBusyException("Transfer pipeline is saturated, try again later");
+        }
+
+        try {
+            return pending.result.get(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new OutcomeUnknownException("Interrupted while waiting for transfer to commit");
+        } catch (TimeoutException e) {
+            // The transfer may still commit; the caller only learns that it did not hear back in time.
+            throw new OutcomeUnknownException("Timed out waiting for transfer to commit");
+        }
+    }
+
+    private void drain() {
+        List<Pending> batch = new ArrayList<>(batchSize);
+        while (running || !ring.isEmpty()) {
+            try {
+                Pending first = ring.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(maxDelayMs);
+                while (batch.size() < batchSize) {
+                    if (ring.drainTo(batch, batchSize - batch.size()) > 0) {
+                        continue;
+                    }
+                    long remaining = deadline - System.nanoTime();
+                    Pending next = remaining > 0 ? ring.poll(remaining, TimeUnit.NANOSECONDS) : null;
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                apply(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.error("Transfer pipeline batch failed", e);
+                batch.forEach(pending -> pending.result.completeExceptionally(e));
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    void apply(List<Pending> batch) {
+        List<TransferCommand> commands = new ArrayList<>(batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            Pending pending = batch.get(i);
+            commands.add(new TransferCommand(i, pending.userId, pending.senderIban, pending.receiverIban, pending.amount));
+        }
+
+        List<BatchTransferResult> results;
+        try {
+            results = batchTransferProcessor.applyAtomically(commands);
+        } catch (RuntimeException e) {
+            if (batch.size() == 1) {
+                batch.get(0).result.completeExceptionally(e);
+                return;
+            }
+            log.warn("Transfer batch of {} rolled back ({}), retrying items one by one", batch.size(), e.getMessage());
+            fallbacks.incrementAndGet();
+            results = new ArrayList<>(commands.size());
+            for (TransferCommand command : commands) {
+                results.add(batchTransferProcessor.apply(List.of(command)).get(0));
+            }
+        }
+
+        batches.incrementAndGet();
+        transfers.addAndGet(batch.size());
+        for (BatchTransferResult result : results) {
+            batch.get(result.index()).result.complete(result);
+        }
+    }
+
+    public long batchCount() {
+        return batches.get();
+    }
+
+    public long transferCount() {
+        return transfers.get();
+    }
+
+    public long fallbackCount() {
+        return fallbacks.get();
+    }
+
+    public int queued() {
+        return ring == null ? 0 : ring.size();
+    }
+
+    record Pending(Long userId, String senderIban, String receiverIban, BigDecimal amount,
+                   CompletableFuture<BatchTransferResult> result) {
+    }
+}
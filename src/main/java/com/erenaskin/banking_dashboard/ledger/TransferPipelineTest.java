@@ -0,0 +1,113 @@
+package com.erenaskin.banking_dashboard.ledger;
+
+import com.erenaskin.banking_dashboard.dto.BatchTransferResult;
+import com.erenaskin.banking_dashboard.exception.OutcomeUnknownException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+class TransferPipelineTest {
+
+    private BatchTransferProcessor processor;
+    private TransferPipeline pipeline;
+
+    @BeforeEach
+    void setUp() {
+        processor = mock(BatchTransferProcessor.class);
+        pipeline = new TransferPipeline(processor);
+        ReflectionTestUtils.setField(pipeline, "enabled", true);
+        ReflectionTestUtils.setField(pipeline, "capacity", 1024);
+        ReflectionTestUtils.setField(pipeline, "batchSize", 64);
+        ReflectionTestUtils.setField(pipeline, "maxDelayMs", 20L);
+        ReflectionTestUtils.setField(pipeline, "workers", 1);
+        ReflectionTestUtils.setField(pipeline, "timeoutMs", 5000L);
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        pipeline.shutdown();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void transfer_ShouldGroupConcurrentCallersAndReturnEachOutcome() throws Exception {
+        when(processor.applyAtomically(anyList())).thenAnswer(invocation -> {
+            List<TransferCommand> commands = invocation.getArgument(0);
+            return commands.stream()
+                    .map(command -> command.amount().signum() > 0
+                            ? BatchTransferResult.success(command.index())
+                            : BatchTransferResult.failed(command.index(), "Insufficient balance"))
+                    .toList();
+        });
+        pipeline.init();
+
+        ExecutorService callers = Executors.newFixedThreadPool(16);
+        List<Future<BatchTransferResult>> results = new ArrayList<>();
+        for (int i = 0; i < 32; i++) {
+            BigDecimal amount = i % 4 == 0 ? BigDecimal.ZERO : BigDecimal.ONE;
+            results.add(callers.submit(() -> pipeline.transfer(1L, "TR1", "TR2", amount)));
+        }
+
+        int failed = 0;
+        for (Future<BatchTransferResult> result : results) {
+            if (BatchTransferResult.FAILED.equals(result.get(5, TimeUnit.SECONDS).status())) {
+                failed++;
+            }
+        }
+        callers.shutdown();
+
+        assertEquals(8, failed);
+        assertEquals(32, pipeline.transferCount());
+        assertTrue(pipeline.batchCount() < 32);
+    }
+
+    @Test
+    void transfer_ShouldReportUnknownOutcome_WhenBatchIsSlow() {
+        ReflectionTestUtils.setField(pipeline, "timeoutMs", 50L);
+        CountDownLatch release = new CountDownLatch(1);
+        when(processor.applyAtomically(anyList())).thenAnswer(invocation -> {
+            release.await();
+            return List.of(BatchTransferResult.success(0));
+        });
+        pipeline.init();
+
+        assertThrows(OutcomeUnknownException.class, () -> pipeline.transfer(1L, "TR1", "TR2", BigDecimal.ONE));
+        release.countDown();
+    }
+
+    @Test
+    void apply_ShouldRetryItemsOneByOne_WhenBatchRollsBack() {
+        when(processor.applyAtomically(anyList())).thenThrow(new DataIntegrityViolationException("boom"));
+        when(processor.apply(anyList())).thenAnswer(invocation -> {
+            List<TransferCommand> commands = invocation.getArgument(0);
+            TransferCommand command = commands.get(0);
+            return List.of(command.index() == 1
+                    ? BatchTransferResult.failed(command.index(), "Chunk rolled back: boom")
+                    : BatchTransferResult.success(command.index()));
+        });
+
+        List<TransferPipeline.Pending> batch = List.of(pending(), pending(), pending());
+        pipeline.apply(batch);
+
+        assertEquals(BatchTransferResult.SUCCESS, batch.get(0).result().join().status());
+        assertEquals(BatchTransferResult.FAILED, batch.get(1).result().join().status());
+        assertEquals(BatchTransferResult.SUCCESS, batch.get(2).result().join().status());
+        assertEquals(1, pipeline.fallbackCount());
+        verify(processor, times(3)).apply(anyList());
+    }
+
+    private static TransferPipeline.Pending pending() {
+        return new TransferPipeline.Pending(1L, "TR1", "TR2", BigDecimal.ONE, new CompletableFuture<>());
+    }
+}
@@ -0,0 +1,111 @@
+package com.erenaskin.banking_dashboard.metrics;
+
+import com.erenaskin.banking_dashboard.cache.IbanResolver;
+import com.erenaskin.banking_dashboard.config.ConnectionPoolLimitFilter;
+import com.erenaskin.banking_dashboard.journal.TransferJournal;
+import com.erenaskin.banking_dashboard.ledger.AccountWriteExecutor;
+import com.erenaskin.banking_dashboard.ledger.LedgerEventBus;
+import com.erenaskin.banking_dashboard.ledger.TransferCoordinator;
+import com.erenaskin.banking_dashboard.ledger.TransferPipeline;
+import com.erenaskin.banking_dashboard.security.AuthThrottle;
+import com.erenaskin.banking_dashboard.security.CurrentUserProvider;
+import com.erenaskin.banking_dashboard.security.JwtUtil;
+import com.erenaskin.banking_dashboard.security.PasswordHashingExecutor;
+import com.erenaskin.banking_dashboard.security.TokenRevocationRegistry;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+import java.util.function.Function;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Publishes the counters the ledger, journal and auth components already keep. Hikari, Hibernate,
+ * HTTP and JVM meters come from Spring Boot's own binders.
+ */
+@Component
+@RequiredArgsConstructor
+public class BankingMeterBinder implements MeterBinder {
+
+    private final TransferCoordinator transferCoordinator;
+    private final TransferPipeline transferPipeline;
+    private final AccountWriteExecutor accountWriteExecutor;
+    private final LedgerEventBus ledgerEventBus;
+    private final TransferJournal transferJournal;
+    private final IbanResolver ibanResolver;
+    private final CurrentUserProvider currentUserProvider;
+    private final JwtUtil jwtUtil;
+    private final TokenRevocationRegistry revocationRegistry;
+    private final AuthThrottle authThrottle;
+    private final PasswordHashingExecutor passwordHashingExecutor;
+    private final ObjectProvider<ConnectionPoolLimitFilter> connectionPoolLimitFilter;
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        counter(registry, "banking.ledger.transfer.retries", transferCoordinator, TransferCoordinator::retryCount);
+        counter(registry, "banking.ledger.transfer.conflicts", transferCoordinator,
+                TransferCoordinator::optimisticConflictCount, "kind", "optimistic");
+        counter(registry, "banking.ledger.transfer.conflicts", transferCoordinator,
+                TransferCoordinator::lockConflictCount, "kind", "lock");
+        counter(registry, "banking.ledger.transfer.exhausted", transferCoordinator, TransferCoordinator::exhaustedCount);
+
+        counter(registry, "banking.ledger.pipeline.batches", transferPipeline, TransferPipeline::batchCount);
+        counter(registry, "banking.ledger.pipeline.transfers", transferPipeline, TransferPipeline::transferCount);
+        counter(registry, "banking.ledger.pipeline.fallbacks", transferPipeline, TransferPipeline::fallbackCount);
+        gauge(registry, "banking.ledger.pipeline.queued", transferPipeline, TransferPipeline::queued);
+        gauge(registry, "banking.ledger.writer.queued", accountWriteExecutor, AccountWriteExecutor::queuedTasks);
+
+        counter(registry, "banking.ledger.events", ledgerEventBus, LedgerEventBus::deliveredCount, "result", "delivered");
+        counter(registry, "banking.ledger.events", ledgerEventBus, LedgerEventBus::failedCount, "result", "failed");
+
+        counter(registry, "banking.journal.appends", transferJournal, TransferJournal::appendCount);
+        counter(registry, "banking.journal.fsyncs", transferJournal, TransferJournal::fsyncCount);
+        gauge(registry, "banking.journal.fsync.avg.ms", transferJournal, TransferJournal::averageFsyncMillis);
+        gauge(registry, "banking.journal.fsync.max.ms", transferJournal, TransferJournal::maxFsyncMillis);
+
+        cache(registry, "iban", ibanResolver, IbanResolver::stats);
+        gauge(registry, "banking.cache.size", ibanResolver, IbanResolver::size, "cache", "iban");
+        cache(registry, "user", currentUserProvider, CurrentUserProvider::stats);
+        cache(registry, "jwt", jwtUtil, JwtUtil::cacheStats);
+
+        gauge(registry, "banking.auth.revoked.tokens", revocationRegistry, TokenRevocationRegistry::revokedTokenCount);
+        counter(registry, "banking.auth.throttled", authThrottle, AuthThrottle::ipRejections, "key", "ip");
+        counter(registry, "banking.auth.throttled", authThrottle, AuthThrottle::emailRejections, "key", "email");
+        gauge(registry, "banking.auth.hashing.queued", passwordHashingExecutor, PasswordHashingExecutor::queueDepth);
+        gauge(registry, "banking.auth.hashing.active", passwordHashingExecutor, PasswordHashingExecutor::activeCount);
+        counter(registry, "banking.auth.hashing.completed", passwordHashingExecutor, PasswordHashingExecutor::completedCount);
+        counter(registry, "banking.auth.hashing.rejected", passwordHashingExecutor, PasswordHashingExecutor::rejectedCount);
+        gauge(registry, "banking.auth.hashing.avg.ms", passwordHashingExecutor, PasswordHashingExecutor::averageHashMillis);
+        gauge(registry, "banking.auth.hashing.max.ms", passwordHashingExecutor, PasswordHashingExecutor::maxHashMillis);
+
+        connectionPoolLimitFilter.ifAvailable(filter -> {
+            gauge(registry, "banking.db.limiter.available", filter, ConnectionPoolLimitFilter::availablePermits);
+            gauge(registry, "banking.db.limiter.waiting", filter, ConnectionPoolLimitFilter::queueLength);
+        });
+    }
+
+    private static <T> void counter(MeterRegistry registry, String name, T source, ToDoubleFunction<T> count,
+                                    String... tags) {
+        FunctionCounter.builder(name, source, count).tags(tags).register(registry);
+    }
+
+    private static <T> void gauge(MeterRegistry registry, String name, T source, ToDoubleFunction<T> value,
+                                  String... tags) {
+        Gauge.builder(name, source, value).tags(tags).register(registry);
+    }
+
+    // Meters keep only a weak reference to their source, so the bean itself is the state object.
+    private static <T> void cache(MeterRegistry registry, String cache, T source, Function<T, CacheStats> stats) {
+        FunctionCounter.builder("banking.cache.requests", source, s -> stats.apply(s).hitCount())
+                .tags("cache", cache, "result", "hit").register(registry);
+        FunctionCounter.builder("banking.cache.requests", source, s -> stats.apply(s).missCount())
+                .tags("cache", cache, "result", "miss").register(registry);
+        FunctionCounter.builder("banking.cache.evictions", source, s -> stats.apply(s).evictionCount())
+                .tags("cache", cache).register(registry);
+    }
+}
@@ -0,0 +1,45 @@
+package com.erenaskin.banking_dashboard.metrics;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * SQL statements and entity loads seen on one request thread. Only the first
+ * {@value #MAX_DISTINCT} distinct statements are tracked individually; the totals are exact.
+ */
+public class RequestStatements {
+
+    private static final int MAX_DISTINCT = 256;
+
+    private final Map<String, Integer> bySql = new HashMap<>();
+    private int statements;
+    private int entities;
+
+    void statement(String sql) {
+        statements++;
+        if (bySql.size() < MAX_DISTINCT || bySql.containsKey(sql)) {
+            bySql.merge(sql, 1, Integer::sum);
+        }
+    }
+
+    void entityLoaded() {
+        entities++;
+    }
+
+    public int statements() {
+        return statements;
+    }
+
+    public int entities() {
+        return entities;
+    }
+
+    public List<Map.Entry<String, Integer>> top(int limit) {
+        return bySql.entrySet().stream()
+                .sorted(Map.Entry.<String, Integer>comparingByValue(Comparator.reverseOrder()))
+                .limit(limit)
+                .toList();
+    }
+}
@@ -0,0 +1,21 @@
+package com.erenaskin.banking_dashboard.metrics;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Declares the statement budget filter here rather than scanning it, so web slice tests, which
+ * pick up every {@code Filter} component but have no JPA, do not need a persistence unit.
+ */
+@Configuration
+@ConditionalOnProperty(name = "sql.budget.enabled", havingValue = "true")
+public class StatementBudgetConfig {
+
+    @Bean
+    public StatementBudgetFilter statementBudgetFilter(StatementCounter statementCounter,
+                                                       EntityManagerFactory entityManagerFactory) {
+        return new StatementBudgetFilter(statementCounter, entityManagerFactory);
+    }
+}
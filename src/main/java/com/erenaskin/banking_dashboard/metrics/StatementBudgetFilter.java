@@ -0,0 +1,104 @@
+package com.erenaskin.banking_dashboard.metrics;
+
+import com.erenaskin.banking_dashboard.exception.StatementBudgetExceededException;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Collectors;
+
+/**
+ * Puts a budget on the SQL statements and loaded entities of each HTTP request, which is where
+ * N+1 loads show up first. Over-budget requests are logged (sampled) with their most repeated
+ * statements; with {@code sql.budget.fail-fast} they throw instead, which is meant for tests.
+ * The request's {@link RequestStatements} is left in the {@link #STATS_ATTRIBUTE} attribute.
+ */
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@RequiredArgsConstructor
+@Slf4j
+public class StatementBudgetFilter extends OncePerRequestFilter {
+
+    public static final String STATS_ATTRIBUTE = StatementBudgetFilter.class.getName() + ".STATS";
+
+    private static final int TOP_STATEMENTS = 3;
+    private static final int MAX_LOGGED_SQL = 200;
+
+    private final StatementCounter statementCounter;
+    private final EntityManagerFactory entityManagerFactory;
+
+    @Value("${sql.budget.max-statements:25}")
+    private int maxStatements;
+
+    @Value("${sql.budget.max-entities:1000}")
+    private int maxEntities;
+
+    @Value("${sql.budget.sample-rate:0.1}")
+    private double sampleRate;
+
+    @Value("${sql.budget.fail-fast:false}")
+    private boolean failFast;
+
+    @PostConstruct
+    public void init() {
+        entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry()
+                .getService(EventListenerRegistry.class)
+                .appendListeners(EventType.POST_LOAD, statementCounter);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        RequestStatements statements = statementCounter.begin();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            statementCounter.end();
+            request.setAttribute(STATS_ATTRIBUTE, statements);
+        }
+
+        if (statements.statements() <= maxStatements && statements.entities() <= maxEntities) {
+            return;
+        }
+        if (!failFast && ThreadLocalRandom.current().nextDouble() >= sampleRate) {
+            return;
+        }
+
+        String message = String.format("%s %s ran %d SQL statements (budget %d) and loaded %d entities (budget %d); top statements: %s",
+                request.getMethod(), request.getRequestURI(), statements.statements(), maxStatements,
+                statements.entities(), maxEntities, top(statements));
+        if (failFast) {
+            throw new StatementBudgetExceededException(message);
+        }
+        log.warn(message);
+    }
+
+    private static String top(RequestStatements statements) {
+        return statements.top(TOP_STATEMENTS).stream()
+                .map(StatementBudgetFilter::format)
+                .collect(Collectors.joining("; "));
+    }
+
+    private static String format(Map.Entry<String, Integer> entry) {
+        String sql = entry.getKey().replaceAll("\\s+", " ").trim();
+        if (sql.length() > MAX_LOGGED_SQL) {
+            sql = sql.substring(0, MAX_LOGGED_SQL) + "...";
+        }
+        return entry.getValue() + "x " + sql;
+    }
+}
@@ -0,0 +1,55 @@
+package com.erenaskin.banking_dashboard.metrics;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.event.spi.PostLoadEvent;
+import org.hibernate.event.spi.PostLoadEventListener;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Counts the SQL Hibernate prepares and the entities it loads on the current thread while a
+ * {@link RequestStatements} is open. Statements issued through {@code JdbcTemplate} and work
+ * handed to other threads (writer lanes, the transfer pipeline) are not seen.
+ */
+@Component
+@ConditionalOnProperty(name = "sql.budget.enabled", havingValue = "true")
+public class StatementCounter implements StatementInspector, PostLoadEventListener, HibernatePropertiesCustomizer {
+
+    private static final ThreadLocal<RequestStatements> CURRENT = new ThreadLocal<>();
+
+    @Override
+    public void customize(Map<String, Object> hibernateProperties) {
+        hibernateProperties.put(AvailableSettings.STATEMENT_INSPECTOR, this);
+    }
+
+    public RequestStatements begin() {
+        RequestStatements statements = new RequestStatements();
+        CURRENT.set(statements);
+        return statements;
+    }
+
+    public void end() {
+        CURRENT.remove();
+    }
+
+    @Override
+    public String inspect(String sql) {
+        RequestStatements statements = CURRENT.get();
+        if (statements != null) {
+            statements.statement(sql);
+        }
+        return sql;
+    }
+
+    @Override
+    public void onPostLoad(PostLoadEvent event) {
+        RequestStatements statements = CURRENT.get();
+        if (statements != null) {
+            statements.entityLoaded();
+        }
+    }
+}
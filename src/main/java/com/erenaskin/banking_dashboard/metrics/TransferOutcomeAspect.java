@@ -0,0 +1,131 @@
+package com.erenaskin.banking_dashboard.metrics;
+
+import com.erenaskin.banking_dashboard.dto.BatchTransferResult;
+import com.erenaskin.banking_dashboard.dto.TransferRequest;
+import com.erenaskin.banking_dashboard.entity.TransactionType;
+import com.erenaskin.banking_dashboard.exception.AccountNotFoundException;
+import com.erenaskin.banking_dashboard.exception.InsufficientBalanceException;
+import com.erenaskin.banking_dashboard.exception.OutcomeUnknownException;
+import com.erenaskin.banking_dashboard.exception.ServiceBusyException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.AfterReturning;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Counts money movements by {@link TransactionType} and outcome as
+ * {@code banking.transfer.outcome}. The services report failures as plain runtime exceptions,
+ * so the outcome is taken from the exception type where there is a dedicated one and from the
+ * message otherwise. Batch items are counted one by one from their results.
+ */
+@Aspect
+@Component
+@RequiredArgsConstructor
+public class TransferOutcomeAspect {
+
+    static final String METER = "banking.transfer.outcome";
+
+    static final String SUCCESS = "success";
+    static final String INSUFFICIENT_BALANCE = "insufficient_balance";
+    static final String NOT_FOUND = "not_found";
+    static final String FORBIDDEN = "forbidden";
+    static final String BUSY = "busy";
+    static final String TIMEOUT = "timeout";
+    static final String ERROR = "error";
+
+    private static final String UNKNOWN_TYPE = "UNKNOWN";
+
+    private final MeterRegistry meterRegistry;
+
+    @Around("execution(* com.erenaskin.banking_dashboard.service.AccountService.createTransaction(..)) && args(*, request)")
+    public Object countTransaction(ProceedingJoinPoint joinPoint, TransferRequest request) throws Throwable {
+        return count(joinPoint, type(request.getType()));
+    }
+
+    @Around("execution(* com.erenaskin.banking_dashboard.service.TransactionService.transfer(..)) && args(request)")
+    public Object countTransfer(ProceedingJoinPoint joinPoint, TransferRequest request) throws Throwable {
+        return count(joinPoint, TransactionType.TRANSFER.name());
+    }
+
+    @AfterReturning(
+            pointcut = "execution(* com.erenaskin.banking_dashboard.service.TransactionService.transferBatch(..))",
+            returning = "results")
+    public void countBatch(List<BatchTransferResult> results) {
+        Map<String, Integer> outcomes = new HashMap<>();
+        for (BatchTransferResult result : results) {
+            String outcome = BatchTransferResult.SUCCESS.equals(result.status()) ? SUCCESS : outcome(result.message());
+            outcomes.merge(outcome, 1, Integer::sum);
+        }
+        outcomes.forEach((outcome, count) -> counter(TransactionType.TRANSFER.name(), outcome).increment(count));
+    }
+
+    private Object count(ProceedingJoinPoint joinPoint, String type) throws Throwable {
+        try {
+            Object result = joinPoint.proceed();
+            counter(type, SUCCESS).increment();
+            return result;
+        } catch (Throwable e) {
+            counter(type, outcome(e)).increment();
+            throw e;
+        }
+    }
+
+    private Counter counter(String type, String outcome) {
+        return meterRegistry.counter(METER, "type", type, "outcome", outcome);
+    }
+
+    static String outcome(Throwable e) {
+        if (e instanceof InsufficientBalanceException) {
+            return INSUFFICIENT_BALANCE;
+        }
+        if (e instanceof AccountNotFoundException) {
+            return NOT_FOUND;
+        }
+        if (e instanceof SecurityException) {
+            return FORBIDDEN;
+        }
+        if (e instanceof ServiceBusyException) {
+            return BUSY;
+        }
+        if (e instanceof OutcomeUnknownException) {
+            return TIMEOUT;
+        }
+        return outcome(e.getMessage());
+    }
+
+    static String outcome(String message) {
+        if (message == null) {
+            return ERROR;
+        }
+        String text = message.toLowerCase(Locale.ROOT);
+        if (text.contains("insufficient balance")) {
+            return INSUFFICIENT_BALANCE;
+        }
+        // "not found or not owned by user" is a foreign IBAN as far as the caller is concerned.
+        if (text.contains("not owned") || text.contains("don't have access")) {
+            return FORBIDDEN;
+        }
+        if (text.contains("not found")) {
+            return NOT_FOUND;
+        }
+        return ERROR;
+    }
+
+    // Keeps the tag set bounded when a request carries an unknown type.
+    private static String type(String type) {
+        try {
+            return TransactionType.valueOf(type).name();
+        } catch (IllegalArgumentException | NullPointerException e) {
+            return UNKNOWN_TYPE;
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.erenaskin.banking_dashboard.metrics;
+
+import com.erenaskin.banking_dashboard.dto.BatchTransferResult;
+import com.erenaskin.banking_dashboard.dto.TransferRequest;
+import com.erenaskin.banking_dashboard.exception.OutcomeUnknownException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class TransferOutcomeAspectTest {
+
+    private SimpleMeterRegistry registry;
+    private TransferOutcomeAspect aspect;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        aspect = new TransferOutcomeAspect(registry);
+    }
+
+    @Test
+    void countTransaction_ShouldTagSuccessAndFailureByType() throws Throwable {
+        ProceedingJoinPoint ok = mock(ProceedingJoinPoint.class);
+        ProceedingJoinPoint insufficient = mock(ProceedingJoinPoint.class);
+        when(insufficient.proceed()).thenThrow(new IllegalArgumentException("Insufficient balance"));
+
+        aspect.countTransaction(ok, request("DEPOSIT"));
+        assertThrows(IllegalArgumentException.class, () -> aspect.countTransaction(insufficient, request("WITHDRAW")));
+        assertThrows(IllegalArgumentException.class, () -> aspect.countTransaction(insufficient, request("BOGUS")));
+
+        assertEquals(1.0, count("DEPOSIT", TransferOutcomeAspect.SUCCESS));
+        assertEquals(1.0, count("WITHDRAW", TransferOutcomeAspect.INSUFFICIENT_BALANCE));
+        assertEquals(1.0, count("UNKNOWN", TransferOutcomeAspect.INSUFFICIENT_BALANCE));
+    }
+
+    @Test
+    void countBatch_ShouldCountEveryItem() {
+        aspect.countBatch(List.of(
+                BatchTransferResult.success(0),
+                BatchTransferResult.success(1),
+                BatchTransferResult.failed(2, "Receiver IBAN not found"),
+                BatchTransferResult.failed(3, "Sender IBAN not found or not owned by user")));
+
+        assertEquals(2.0, count("TRANSFER", TransferOutcomeAspect.SUCCESS));
+        assertEquals(1.0, count("TRANSFER", TransferOutcomeAspect.NOT_FOUND));
+        assertEquals(1.0, count("TRANSFER", TransferOutcomeAspect.FORBIDDEN));
+    }
+
+    @Test
+    void outcome_ShouldClassifyServiceErrors() {
+        assertEquals(TransferOutcomeAspect.FORBIDDEN,
+                TransferOutcomeAspect.outcome(new SecurityException("You don't have access to this account")));
+        assertEquals(TransferOutcomeAspect.NOT_FOUND,
+                TransferOutcomeAspect.outcome(new IllegalArgumentException("Account not found: TR1")));
+        assertEquals(TransferOutcomeAspect.TIMEOUT,
+                TransferOutcomeAspect.outcome(new OutcomeUnknownException("Timed out waiting for account TR1")));
+        assertEquals(TransferOutcomeAspect.ERROR,
+                TransferOutcomeAspect.outcome(new IllegalStateException("Response is not serializable")));
+    }
+
+    private double count(String type, String outcome) {
+        return registry.get(TransferOutcomeAspect.METER).tags("type", type, "outcome", outcome).counter().count();
+    }
+
+    private static TransferRequest request(String type) {
+        return new TransferRequest(type, BigDecimal.TEN, "TR1", "TR1");
+    }
+}
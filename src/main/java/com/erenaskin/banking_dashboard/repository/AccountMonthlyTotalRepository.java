@@ -0,0 +1,12 @@
+package com.erenaskin.banking_dashboard.repository;
+
+import com.erenaskin.banking_dashboard.entity.AccountMonthlyTotal;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface AccountMonthlyTotalRepository extends JpaRepository<AccountMonthlyTotal, AccountMonthlyTotal.Key> {
+
+    List<AccountMonthlyTotal> findByAccountIdAndMonthGreaterThanEqualOrderByMonthDesc(Long accountId, LocalDate from);
+}
@@ -1,13 +1,49 @@
 package com.erenaskin.banking_dashboard.repository;
 
+import com.erenaskin.banking_dashboard.dto.AccountSummary;
 import com.erenaskin.banking_dashboard.entity.Account;
-import com.erenaskin.banking_dashboard.entity.User;
+import com.erenaskin.banking_dashboard.entity.Currency;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 public interface AccountRepository extends JpaRepository<Account, Long> {
-    List<Account> findByUser(User user);
+    List<Account> findByUserId(Long userId);
+
+    @Query("select a.currency as currency, sum(a.balance) as total from Account a where a.user.id = :userId group by a.currency")
+    List<CurrencyTotal> sumBalancesByCurrency(@Param("userId") Long userId);
     Optional<Account> findByIban(String iban);
+
+    @Query("select a.id from Account a where a.iban = :iban")
+    Optional<Long> findIdByIban(@Param("iban") String iban);
+
+    @Query("""
+            select new com.erenaskin.banking_dashboard.dto.AccountSummary(a.id, a.iban, a.currency, a.balance, a.user.id)
+            from Account a where a.id = :id
+            """)
+    Optional<AccountSummary> findSummaryById(@Param("id") Long id);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select a from Account a where a.id = :id")
+    Optional<Account> findByIdForUpdate(@Param("id") Long id);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select a from Account a where a.id in :ids order by a.id")
+    List<Account> findAllByIdInForUpdate(@Param("ids") Collection<Long> ids);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select a from Account a where a.iban = :iban")
+    Optional<Account> findByIbanForUpdate(@Param("iban") String iban);
+
+    interface CurrencyTotal {
+        Currency getCurrency();
+        BigDecimal getTotal();
+    }
 }
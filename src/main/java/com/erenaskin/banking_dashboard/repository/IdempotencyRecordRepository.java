@@ -0,0 +1,40 @@
+package com.erenaskin.banking_dashboard.repository;
+
+import com.erenaskin.banking_dashboard.entity.IdempotencyRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, String> {
+
+    /**
+     * Inserts a fresh claim, or takes over an unfinished one for the same request whose lease
+     * started before {@code staleBefore}. Returns 1 when the caller now owns the key.
+     */
+    @Modifying
+    @Query(value = "insert into idempotency_keys (id, fingerprint, created_at, claimed_at, expires_at) " +
+            "values (:id, :fingerprint, :now, :now, :expiresAt) " +
+            "on conflict (id) do update set claimed_at = excluded.claimed_at " +
+            "where idempotency_keys.status is null and idempotency_keys.fingerprint = excluded.fingerprint " +
+            "and coalesce(idempotency_keys.claimed_at, idempotency_keys.created_at) < :staleBefore", nativeQuery = true)
+    int claim(@Param("id") String id, @Param("fingerprint") String fingerprint, @Param("now") Instant now,
+              @Param("expiresAt") Instant expiresAt, @Param("staleBefore") Instant staleBefore);
+
+    @Modifying
+    @Query("update IdempotencyRecord r set r.status = :status, r.body = :body " +
+            "where r.id = :id and r.claimedAt = :claimedAt")
+    int complete(@Param("id") String id, @Param("claimedAt") Instant claimedAt,
+                 @Param("status") int status, @Param("body") String body);
+
+    @Modifying
+    @Query("delete from IdempotencyRecord r where r.id = :id and r.claimedAt = :claimedAt and r.status is null")
+    int release(@Param("id") String id, @Param("claimedAt") Instant claimedAt);
+
+    @Modifying
+    @Query(value = "delete from idempotency_keys where id in " +
+            "(select id from idempotency_keys where expires_at < :now limit :limit)", nativeQuery = true)
+    int deleteExpired(@Param("now") Instant now, @Param("limit") int limit);
+}
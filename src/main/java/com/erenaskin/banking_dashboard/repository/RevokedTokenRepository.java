@@ -0,0 +1,25 @@
+package com.erenaskin.banking_dashboard.repository;
+
+import com.erenaskin.banking_dashboard.entity.RevokedToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.List;
+
+public interface RevokedTokenRepository extends JpaRepository<RevokedToken, String> {
+
+    @Query("select r.tokenId as tokenId, r.expiresAt as expiresAt from RevokedToken r where r.expiresAt > :now")
+    List<ActiveToken> findActive(@Param("now") Instant now);
+
+    @Modifying
+    @Query("delete from RevokedToken r where r.expiresAt <= :now")
+    int deleteExpired(@Param("now") Instant now);
+
+    interface ActiveToken {
+        String getTokenId();
+        Instant getExpiresAt();
+    }
+}
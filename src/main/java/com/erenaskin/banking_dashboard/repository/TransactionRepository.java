@@ -1,12 +1,58 @@
 package com.erenaskin.banking_dashboard.repository;
 
+import com.erenaskin.banking_dashboard.dto.TransactionView;
 import com.erenaskin.banking_dashboard.entity.Transaction;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface TransactionRepository extends JpaRepository<Transaction, Long> {
-    List<Transaction> findBySenderIbanOrReceiverIban(String senderIban, String receiverIban);
-    List<Transaction> findAllByAccount_IbanOrderByTimestampDesc(String iban);
 
+    // The listings below are constructor projections: one statement, no managed entities.
+
+    @Query("""
+            select new com.erenaskin.banking_dashboard.dto.TransactionView(
+                t.id, t.senderIban, t.receiverIban, t.amount, t.receivedAmount, t.timestamp,
+                t.senderBalanceAfter, t.receiverBalanceAfter)
+            from Transaction t
+            where t.senderIban = :iban
+              and (t.timestamp < :timestamp or (t.timestamp = :timestamp and t.id < :id))
+            order by t.timestamp desc, t.id desc
+            """)
+    List<TransactionView> findSentBefore(@Param("iban") String iban,
+                                         @Param("timestamp") LocalDateTime timestamp,
+                                         @Param("id") Long id,
+                                         Pageable pageable);
+
+    @Query("""
+            select new com.erenaskin.banking_dashboard.dto.TransactionView(
+                t.id, t.senderIban, t.receiverIban, t.amount, t.receivedAmount, t.timestamp,
+                t.senderBalanceAfter, t.receiverBalanceAfter)
+            from Transaction t
+            where t.receiverIban = :iban
+              and (t.timestamp < :timestamp or (t.timestamp = :timestamp and t.id < :id))
+            order by t.timestamp desc, t.id desc
+            """)
+    List<TransactionView> findReceivedBefore(@Param("iban") String iban,
+                                             @Param("timestamp") LocalDateTime timestamp,
+                                             @Param("id") Long id,
+                                             Pageable pageable);
+
+    @Query("""
+            select new com.erenaskin.banking_dashboard.dto.TransactionView(
+                t.id, t.senderIban, t.receiverIban, t.amount, t.receivedAmount, t.timestamp,
+                t.senderBalanceAfter, t.receiverBalanceAfter)
+            from Transaction t
+            where t.account.id = :accountId
+              and (t.timestamp < :timestamp or (t.timestamp = :timestamp and t.id < :id))
+            order by t.timestamp desc, t.id desc
+            """)
+    List<TransactionView> findByAccountBefore(@Param("accountId") Long accountId,
+                                              @Param("timestamp") LocalDateTime timestamp,
+                                              @Param("id") Long id,
+                                              Pageable pageable);
 }
@@ -2,10 +2,29 @@ package com.erenaskin.banking_dashboard.repository;
 
 import com.erenaskin.banking_dashboard.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.List;
 import java.util.Optional;
 
 public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByEmail(String email);
     boolean existsByEmail(String email);
+
+    @Query("select u.id from User u where u.email = :email")
+    Optional<Long> findIdByEmail(@Param("email") String email);
+
+    @Query("select u.id as userId, u.tokenEpoch as tokenEpoch from User u where u.tokenEpoch > 0")
+    List<TokenEpochView> findRaisedTokenEpochs();
+
+    @Modifying
+    @Query("update User u set u.tokenEpoch = u.tokenEpoch + 1 where u.id = :id")
+    int incrementTokenEpoch(@Param("id") Long id);
+
+    interface TokenEpochView {
+        Long getUserId();
+        int getTokenEpoch();
+    }
 }
\ No newline at end of file
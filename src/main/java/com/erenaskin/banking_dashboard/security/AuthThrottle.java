@@ -0,0 +1,80 @@
+package com.erenaskin.banking_dashboard.security;
+
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-client-IP and per-email rate limits for the unauthenticated auth endpoints, so that
+ * credential stuffing is turned away before it reaches BCrypt or the database. The email bucket
+ * is keyed on the email and the client IP together: keyed on the email alone, anyone who knows
+ * a customer's address could keep that customer locked out by failing logins from elsewhere.
+ */
+@Component
+public class AuthThrottle {
+
+    @Value("${security.throttle.slots:65536}")
+    private int slots;
+
+    @Value("${security.throttle.ip.capacity:20}")
+    private int ipCapacity;
+
+    @Value("${security.throttle.ip.refill-per-minute:60}")
+    private int ipRefillPerMinute;
+
+    @Value("${security.throttle.email.capacity:5}")
+    private int emailCapacity;
+
+    @Value("${security.throttle.email.refill-per-minute:10}")
+    private int emailRefillPerMinute;
+
+    private final AtomicLong ipRejections = new AtomicLong();
+    private final AtomicLong emailRejections = new AtomicLong();
+
+    private TokenBucketThrottle byIp;
+    private TokenBucketThrottle byEmail;
+
+    @PostConstruct
+    public void init() {
+        byIp = new TokenBucketThrottle(slots, ipCapacity, ipRefillPerMinute);
+        byEmail = new TokenBucketThrottle(slots, emailCapacity, emailRefillPerMinute);
+    }
+
+    public boolean tryAcquireIp(String clientIp) {
+        if (byIp.tryAcquire(clientIp == null ? "" : clientIp)) {
+            return true;
+        }
+        ipRejections.incrementAndGet();
+        return false;
+    }
+
+    public boolean tryAcquireEmail(String email) {
+        String key = (email == null ? "" : email.trim().toLowerCase(Locale.ROOT)) + '|' + clientIp();
+        if (byEmail.tryAcquire(key)) {
+            return true;
+        }
+        emailRejections.incrementAndGet();
+        return false;
+    }
+
+    private static String clientIp() {
+        if (RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes) {
+            String address = attributes.getRequest().getRemoteAddr();
+            return address == null ? "" : address;
+        }
+        return "";
+    }
+
+    public long ipRejections() {
+        return ipRejections.get();
+    }
+
+    public long emailRejections() {
+        return emailRejections.get();
+    }
+}
@@ -0,0 +1,60 @@
+package com.erenaskin.banking_dashboard.security;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AuthThrottleTest {
+
+    private AuthThrottle throttle;
+
+    @BeforeEach
+    void setUp() {
+        throttle = new AuthThrottle();
+        ReflectionTestUtils.setField(throttle, "slots", 1024);
+        ReflectionTestUtils.setField(throttle, "ipCapacity", 20);
+        ReflectionTestUtils.setField(throttle, "ipRefillPerMinute", 60);
+        ReflectionTestUtils.setField(throttle, "emailCapacity", 2);
+        ReflectionTestUtils.setField(throttle, "emailRefillPerMinute", 1);
+        throttle.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void tryAcquireEmail_ShouldRejectSameEmail_FromSameClient() {
+        from("203.0.113.7");
+
+        assertTrue(throttle.tryAcquireEmail("user@example.com"));
+        assertTrue(throttle.tryAcquireEmail(" USER@example.com"));
+        assertFalse(throttle.tryAcquireEmail("user@example.com"));
+        assertEquals(1, throttle.emailRejections());
+    }
+
+    @Test
+    void tryAcquireEmail_ShouldNotLockOutOwner_WhenAnotherClientExhaustsBucket() {
+        from("203.0.113.7");
+        while (throttle.tryAcquireEmail("user@example.com")) {
+            // drain the attacker's bucket
+        }
+
+        from("198.51.100.1");
+
+        assertTrue(throttle.tryAcquireEmail("user@example.com"));
+    }
+
+    private static void from(String remoteAddr) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/auth/login");
+        request.setRemoteAddr(remoteAddr);
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+    }
+}
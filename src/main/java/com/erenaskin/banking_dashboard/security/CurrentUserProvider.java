@@ -0,0 +1,81 @@
+package com.erenaskin.banking_dashboard.security;
+
+import com.erenaskin.banking_dashboard.entity.User;
+import com.erenaskin.banking_dashboard.repository.UserRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Resolves the authenticated user's id without loading the {@link User} entity. Claims-based
+ * authentications carry the id directly; otherwise the email is mapped through a bounded cache
+ * backed by a single-column query.
+ */
+@Component
+@RequiredArgsConstructor
+public class CurrentUserProvider {
+
+    private final UserRepository userRepository;
+
+    @Value("${cache.user.max-size:100000}")
+    private long maxSize;
+
+    @Value("${cache.user.ttl-minutes:10}")
+    private long ttlMinutes;
+
+    private Cache<String, Long> ids;
+
+    @PostConstruct
+    public void init() {
+        ids = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofMinutes(ttlMinutes))
+                .recordStats()
+                .build();
+    }
+
+    public Long currentUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null) {
+            throw new IllegalStateException("User not found");
+        }
+        if (authentication.getPrincipal() instanceof JwtPrincipal principal && principal.userId() != null) {
+            return principal.userId();
+        }
+
+        Long id = ids.get(authentication.getName(), email -> userRepository.findIdByEmail(email).orElse(null));
+        if (id == null) {
+            throw new IllegalStateException("User not found");
+        }
+        return id;
+    }
+
+    /**
+     * Returns an uninitialized reference to the current user, suitable for setting associations.
+     */
+    public User currentUserReference() {
+        return userRepository.getReferenceById(currentUserId());
+    }
+
+    /**
+     * Drops the cached id for {@code email}. Every path that saves or deletes a {@link User}
+     * calls this, so a re-registered email never resolves to the id of a removed user.
+     */
+    public void evict(String email) {
+        if (email != null) {
+            ids.invalidate(email);
+        }
+    }
+
+    public CacheStats stats() {
+        return ids.stats();
+    }
+}
@@ -0,0 +1,66 @@
+package com.erenaskin.banking_dashboard.security;
+
+import com.erenaskin.banking_dashboard.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class CurrentUserProviderTest {
+
+    private UserRepository userRepository;
+    private CurrentUserProvider provider;
+
+    @BeforeEach
+    void setUp() {
+        userRepository = mock(UserRepository.class);
+        provider = new CurrentUserProvider(userRepository);
+        ReflectionTestUtils.setField(provider, "maxSize", 100L);
+        ReflectionTestUtils.setField(provider, "ttlMinutes", 10L);
+        provider.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void currentUserId_ShouldUseClaims_WithoutQuerying() {
+        JwtPrincipal principal = new JwtPrincipal(7L, "user@example.com", "USER");
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(principal, null, List.of()));
+
+        assertEquals(7L, provider.currentUserId());
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    void currentUserId_ShouldCacheEmailLookup() {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken("user@example.com", null, List.of()));
+        when(userRepository.findIdByEmail("user@example.com")).thenReturn(Optional.of(7L));
+
+        assertEquals(7L, provider.currentUserId());
+        assertEquals(7L, provider.currentUserId());
+        verify(userRepository, times(1)).findIdByEmail("user@example.com");
+    }
+
+    @Test
+    void currentUserId_ShouldThrow_WhenUserMissing() {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken("ghost@example.com", null, List.of()));
+        when(userRepository.findIdByEmail("ghost@example.com")).thenReturn(Optional.empty());
+
+        IllegalStateException ex = assertThrows(IllegalStateException.class, provider::currentUserId);
+        assertEquals("User not found", ex.getMessage());
+    }
+}
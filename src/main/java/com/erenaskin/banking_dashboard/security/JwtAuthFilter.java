@@ -1,10 +1,13 @@
 package com.erenaskin.banking_dashboard.security;
 
+import io.jsonwebtoken.JwtException;
 import jakarta.servlet.*;
 import jakarta.servlet.http.*;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.*;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
@@ -12,6 +15,7 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.List;
 
 @Component
 @RequiredArgsConstructor
@@ -20,6 +24,10 @@ public class JwtAuthFilter extends OncePerRequestFilter {
 
     private final JwtUtil jwtUtil;
     private final CustomUserDetailsService userDetailsService;
+    private final TokenRevocationRegistry revocationRegistry;
+
+    @Value("${security.auth.stateless-claims:true}")
+    private boolean statelessClaims;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
@@ -36,10 +44,33 @@ public class JwtAuthFilter extends OncePerRequestFilter {
         }
 
         token = authHeader.substring(7);
-        email = jwtUtil.extractUsername(token);
+        VerifiedToken verified;
+        try {
+            verified = jwtUtil.verify(token);
+        } catch (JwtException | IllegalArgumentException e) {
+            log.warn("Rejected token: {}", e.getMessage());
+            filterChain.doFilter(request, response);
+            return;
+        }
+        if (revocationRegistry.isRevoked(verified)) {
+            log.warn("Rejected revoked token {}", verified.tokenId());
+            filterChain.doFilter(request, response);
+            return;
+        }
+        email = verified.subject();
         log.debug("Extracted email from token: {}", email);
 
-        if (email != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+        if (email != null && SecurityContextHolder.getContext().getAuthentication() == null
+                && statelessClaims && verified.userId() != null && verified.role() != null) {
+            // Signature, expiry and revocation are already checked; the claims are trusted as-is.
+            JwtPrincipal principal = new JwtPrincipal(verified.userId(), email, verified.role());
+            UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
+                    principal, null, List.of(new SimpleGrantedAuthority("ROLE_" + verified.role())));
+            authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+
+            SecurityContextHolder.getContext().setAuthentication(authToken);
+            log.debug("Authentication set from token claims for user: {}", email);
+        } else if (email != null && SecurityContextHolder.getContext().getAuthentication() == null) {
             UserDetails userDetails;
             try {
                 userDetails = userDetailsService.loadUserByUsername(email);
@@ -50,7 +81,7 @@ public class JwtAuthFilter extends OncePerRequestFilter {
                 return;
             }
 
-            if (jwtUtil.isTokenValid(token, userDetails.getUsername())) {
+            if (email.equals(userDetails.getUsername())) {
                 log.debug("Token is valid for user: {}", userDetails.getUsername());
 
                 UsernamePasswordAuthenticationToken authToken =
@@ -0,0 +1,15 @@
+package com.erenaskin.banking_dashboard.security;
+
+import org.springframework.security.core.AuthenticatedPrincipal;
+
+/**
+ * Principal built purely from verified token claims; {@link #getName()} is the user's email so
+ * code reading {@code Authentication#getName()} behaves the same as with a loaded UserDetails.
+ */
+public record JwtPrincipal(Long userId, String email, String role) implements AuthenticatedPrincipal {
+
+    @Override
+    public String getName() {
+        return email;
+    }
+}
@@ -0,0 +1,66 @@
+package com.erenaskin.banking_dashboard.security;
+
+import com.erenaskin.banking_dashboard.entity.Role;
+import com.erenaskin.banking_dashboard.entity.User;
+import io.jsonwebtoken.JwtException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwtUtilTest {
+
+    private JwtUtil jwtUtil;
+
+    @BeforeEach
+    void setUp() {
+        jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "secretKey", "6eFj9x!Q@wzL29mvRc5kTaD8Xx7#jYpZ");
+        ReflectionTestUtils.setField(jwtUtil, "expiration", 60_000L);
+        ReflectionTestUtils.setField(jwtUtil, "cacheMaxSize", 100L);
+        jwtUtil.init();
+    }
+
+    @Test
+    void verify_ShouldDecodeSubjectAndRole() {
+        String token = jwtUtil.generateToken(User.builder().email("user@example.com").role(Role.USER).build());
+
+        VerifiedToken verified = jwtUtil.verify(token);
+
+        assertEquals("user@example.com", verified.subject());
+        assertEquals("USER", verified.role());
+        assertTrue(jwtUtil.isTokenValid(token, "user@example.com"));
+    }
+
+    @Test
+    void verify_ShouldCarryUserIdEpochAndTokenId() {
+        String token = jwtUtil.generateToken(User.builder().id(42L).email("user@example.com").role(Role.USER).tokenEpoch(3).build());
+
+        VerifiedToken verified = jwtUtil.verify(token);
+
+        assertEquals(42L, verified.userId());
+        assertEquals(3, verified.epoch());
+        assertNotNull(verified.tokenId());
+    }
+
+    @Test
+    void verify_ShouldServeRepeatedTokensFromCache() {
+        String token = jwtUtil.generateToken(User.builder().email("user@example.com").role(Role.USER).build());
+
+        VerifiedToken first = jwtUtil.verify(token);
+        VerifiedToken second = jwtUtil.verify(token);
+
+        assertSame(first, second);
+        assertEquals(1, jwtUtil.cacheStats().hitCount());
+    }
+
+    @Test
+    void verify_ShouldRejectTamperedToken() {
+        String token = jwtUtil.generateToken(User.builder().email("user@example.com").role(Role.USER).build());
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("A") ? "BB" : "AA");
+
+        assertThrows(JwtException.class, () -> jwtUtil.verify(tampered));
+        assertFalse(jwtUtil.isTokenValid(tampered, "user@example.com"));
+    }
+}
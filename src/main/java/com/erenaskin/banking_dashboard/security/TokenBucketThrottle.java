@@ -0,0 +1,73 @@
+package com.erenaskin.banking_dashboard.security;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.LongSupplier;
+
+/**
+ * Lock-free token buckets striped over a fixed table. Keys hash onto one of {@code slots} buckets,
+ * so memory stays constant however many keys are seen; once keys outnumber slots, colliding keys
+ * share a bucket and the limit becomes approximate (never looser than configured).
+ * <p>
+ * Each bucket is a single {@code long}: the last refill time in milliseconds in the high bits and
+ * the remaining tokens in thousandths in the low {@value #TOKEN_BITS} bits, updated by CAS.
+ */
+public class TokenBucketThrottle {
+
+    private static final int TOKEN_BITS = 24;
+    private static final long TOKEN_MASK = (1L << TOKEN_BITS) - 1;
+    private static final long ONE_TOKEN = 1000;
+
+    private final AtomicLongArray buckets;
+    private final int mask;
+    private final long capacity;
+    private final double refillPerMilli;
+    private final LongSupplier clock;
+    private final long epoch;
+
+    public TokenBucketThrottle(int slots, int capacity, int refillPerMinute) {
+        this(slots, capacity, refillPerMinute, System::currentTimeMillis);
+    }
+
+    TokenBucketThrottle(int slots, int capacity, int refillPerMinute, LongSupplier clock) {
+        if (capacity <= 0 || (long) capacity * ONE_TOKEN > TOKEN_MASK) {
+            throw new IllegalArgumentException("Bucket capacity out of range: " + capacity);
+        }
+        int size = Integer.highestOneBit(Math.max(1, slots - 1)) << 1;
+        this.buckets = new AtomicLongArray(size);
+        this.mask = size - 1;
+        this.capacity = capacity * ONE_TOKEN;
+        this.refillPerMilli = refillPerMinute * ONE_TOKEN / 60_000.0;
+        this.clock = clock;
+        this.epoch = clock.getAsLong() - 1;
+    }
+
+    public boolean tryAcquire(String key) {
+        int slot = slotOf(key);
+        long now = clock.getAsLong() - epoch;
+        while (true) {
+            long current = buckets.get(slot);
+            long last = current >>> TOKEN_BITS;
+            long tokens = current & TOKEN_MASK;
+            // A zero bucket has never been used and starts full.
+            long refilled = current == 0
+                    ? capacity
+                    : Math.min(capacity, tokens + (long) (Math.max(0, now - last) * refillPerMilli));
+            if (refilled < ONE_TOKEN) {
+                return false;
+            }
+            long next = (Math.max(now, last) << TOKEN_BITS) | (refilled - ONE_TOKEN);
+            if (buckets.compareAndSet(slot, current, next)) {
+                return true;
+            }
+        }
+    }
+
+    public int slots() {
+        return buckets.length();
+    }
+
+    private int slotOf(String key) {
+        int h = key.hashCode() * 0x9E3779B9;
+        return (h ^ (h >>> 16)) & mask;
+    }
+}
@@ -0,0 +1,45 @@
+package com.erenaskin.banking_dashboard.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenBucketThrottleTest {
+
+    private final AtomicLong clock = new AtomicLong(1_000_000);
+
+    @Test
+    void tryAcquire_ShouldAllowBurstUpToCapacity() {
+        TokenBucketThrottle throttle = new TokenBucketThrottle(1024, 3, 60, clock::get);
+
+        assertTrue(throttle.tryAcquire("user@example.com"));
+        assertTrue(throttle.tryAcquire("user@example.com"));
+        assertTrue(throttle.tryAcquire("user@example.com"));
+        assertFalse(throttle.tryAcquire("user@example.com"));
+    }
+
+    @Test
+    void tryAcquire_ShouldRefillOverTime() {
+        TokenBucketThrottle throttle = new TokenBucketThrottle(1024, 1, 60, clock::get);
+
+        assertTrue(throttle.tryAcquire("10.0.0.1"));
+        assertFalse(throttle.tryAcquire("10.0.0.1"));
+
+        clock.addAndGet(1_000);
+
+        assertTrue(throttle.tryAcquire("10.0.0.1"));
+    }
+
+    @Test
+    void tryAcquire_ShouldKeepMemoryFixed() {
+        TokenBucketThrottle throttle = new TokenBucketThrottle(1000, 1, 60, clock::get);
+
+        for (int i = 0; i < 100_000; i++) {
+            throttle.tryAcquire("key-" + i);
+        }
+
+        assertEquals(1024, throttle.slots());
+    }
+}
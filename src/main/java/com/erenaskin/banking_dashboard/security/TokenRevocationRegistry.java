@@ -0,0 +1,90 @@
+package com.erenaskin.banking_dashboard.security;
+
+import com.erenaskin.banking_dashboard.entity.RevokedToken;
+import com.erenaskin.banking_dashboard.repository.RevokedTokenRepository;
+import com.erenaskin.banking_dashboard.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory view of revoked tokens (by token id) and per-user token epochs, refreshed from the
+ * database on a fixed delay so request authentication never has to query it. Refreshes merge
+ * the database into memory rather than replacing it, so a revocation made while a refresh is
+ * running is never lost; tokens only leave memory once they have expired.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class TokenRevocationRegistry {
+
+    private final RevokedTokenRepository revokedTokenRepository;
+    private final UserRepository userRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    private final Map<String, Instant> revokedTokens = new ConcurrentHashMap<>();
+    private final Map<Long, Integer> userEpochs = new ConcurrentHashMap<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void init() {
+        refresh();
+    }
+
+    // Runs through the template because the first call comes from inside this bean, past the proxy.
+    @Scheduled(fixedDelayString = "${security.revocation.refresh-ms:30000}")
+    public void refresh() {
+        transactionTemplate.executeWithoutResult(status -> {
+            Instant now = Instant.now();
+            revokedTokenRepository.deleteExpired(now);
+
+            for (RevokedTokenRepository.ActiveToken token : revokedTokenRepository.findActive(now)) {
+                revokedTokens.put(token.getTokenId(), token.getExpiresAt());
+            }
+            revokedTokens.values().removeIf(expiresAt -> !expiresAt.isAfter(now));
+
+            // Epochs only ever go up, so the larger of memory and database is the current one.
+            for (UserRepository.TokenEpochView view : userRepository.findRaisedTokenEpochs()) {
+                userEpochs.merge(view.getUserId(), view.getTokenEpoch(), Math::max);
+            }
+        });
+        log.debug("Revocation registry refreshed: {} tokens, {} user epochs", revokedTokens.size(), userEpochs.size());
+    }
+
+    public boolean isRevoked(VerifiedToken token) {
+        if (token.tokenId() != null && revokedTokens.containsKey(token.tokenId())) {
+            return true;
+        }
+        return token.userId() != null && token.epoch() < userEpochs.getOrDefault(token.userId(), 0);
+    }
+
+    @Transactional
+    public void revoke(VerifiedToken token) {
+        if (token.tokenId() == null) {
+            return;
+        }
+        revokedTokenRepository.save(RevokedToken.builder()
+                .tokenId(token.tokenId())
+                .expiresAt(token.expiresAt())
+                .build());
+        revokedTokens.put(token.tokenId(), token.expiresAt());
+    }
+
+    @Transactional
+    public void revokeAll(Long userId) {
+        userRepository.incrementTokenEpoch(userId);
+        userEpochs.merge(userId, 1, Integer::sum);
+    }
+
+    public int revokedTokenCount() {
+        return revokedTokens.size();
+    }
+}
@@ -0,0 +1,83 @@
+package com.erenaskin.banking_dashboard.security;
+
+import com.erenaskin.banking_dashboard.repository.RevokedTokenRepository;
+import com.erenaskin.banking_dashboard.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class TokenRevocationRegistryTest {
+
+    private RevokedTokenRepository revokedTokenRepository;
+    private UserRepository userRepository;
+    private TransactionTemplate transactionTemplate;
+    private TokenRevocationRegistry registry;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        revokedTokenRepository = mock(RevokedTokenRepository.class);
+        userRepository = mock(UserRepository.class);
+        transactionTemplate = mock(TransactionTemplate.class);
+        doAnswer(invocation -> {
+            ((Consumer<TransactionStatus>) invocation.getArgument(0)).accept(mock(TransactionStatus.class));
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+        registry = new TokenRevocationRegistry(revokedTokenRepository, userRepository, transactionTemplate);
+    }
+
+    @Test
+    void refresh_ShouldRunInTransactionAndKeepConcurrentRevocations() {
+        when(revokedTokenRepository.findActive(any())).thenReturn(List.of());
+        when(userRepository.findRaisedTokenEpochs()).thenReturn(List.of());
+        VerifiedToken token = token("jti-1", Instant.now().plusSeconds(60));
+
+        registry.revoke(token);
+        registry.refresh();
+
+        assertTrue(registry.isRevoked(token));
+        verify(transactionTemplate).executeWithoutResult(any());
+        verify(revokedTokenRepository).deleteExpired(any());
+    }
+
+    @Test
+    void refresh_ShouldDropOnlyExpiredTokens() {
+        when(revokedTokenRepository.findActive(any())).thenReturn(List.of());
+        when(userRepository.findRaisedTokenEpochs()).thenReturn(List.of());
+        VerifiedToken expired = token("jti-old", Instant.now().minusSeconds(1));
+
+        registry.revoke(expired);
+        registry.refresh();
+
+        assertFalse(registry.isRevoked(expired));
+        assertEquals(0, registry.revokedTokenCount());
+    }
+
+    @Test
+    void refresh_ShouldNotLowerUserEpoch() {
+        UserRepository.TokenEpochView stale = mock(UserRepository.TokenEpochView.class);
+        when(stale.getUserId()).thenReturn(7L);
+        when(stale.getTokenEpoch()).thenReturn(0);
+        when(revokedTokenRepository.findActive(any())).thenReturn(List.of());
+        when(userRepository.findRaisedTokenEpochs()).thenReturn(List.of(stale));
+
+        registry.revokeAll(7L);
+        registry.refresh();
+
+        assertTrue(registry.isRevoked(new VerifiedToken("user@example.com", "USER", 7L, null, 0,
+                Instant.now().plusSeconds(60))));
+    }
+
+    private static VerifiedToken token(String tokenId, Instant expiresAt) {
+        return new VerifiedToken("user@example.com", "USER", 7L, tokenId, 0, expiresAt);
+    }
+}
@@ -0,0 +1,16 @@
+package com.erenaskin.banking_dashboard.security;
+
+import java.time.Instant;
+
+public record VerifiedToken(
+        String subject,
+        String role,
+        Long userId,
+        String tokenId,
+        int epoch,
+        Instant expiresAt
+) {
+    public boolean isExpired(Instant now) {
+        return !expiresAt.isAfter(now);
+    }
+}
@@ -10,6 +10,8 @@ public interface AccountService {
     void createAccount(AccountRequest request);
     List<AccountResponse> getUserAccounts();
     Currency getCurrencyByIban(String iban);
-    AccountDetailsResponse getAccountDetails(String iban);
+    AccountDetailsResponse getAccountDetails(String iban, String cursor, Integer size);
     void createTransaction(String iban, TransferRequest request);
+    List<MonthlySummaryResponse> getMonthlySummary(String iban, Integer months);
+    PortfolioTotalResponse getPortfolioTotal(Currency in);
 }
\ No newline at end of file
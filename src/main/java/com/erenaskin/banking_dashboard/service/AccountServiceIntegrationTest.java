@@ -69,7 +69,7 @@ class AccountServiceIntegrationTest {
 
         accountService.createTransaction(iban, deposit);
 
-        AccountDetailsResponse details = accountService.getAccountDetails(iban);
+        AccountDetailsResponse details = accountService.getAccountDetails(iban, null, null);
         assertEquals(new BigDecimal("1000"), details.balance());
     }
 }
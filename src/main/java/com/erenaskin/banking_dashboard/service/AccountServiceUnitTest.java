@@ -1,5 +1,6 @@
 package com.erenaskin.banking_dashboard.service;
 
+import com.erenaskin.banking_dashboard.cache.IbanResolver;
 import com.erenaskin.banking_dashboard.dto.*;
 import com.erenaskin.banking_dashboard.entity.*;
 import com.erenaskin.banking_dashboard.entity.Currency;
@@ -7,11 +8,15 @@ import com.erenaskin.banking_dashboard.impl.AccountServiceImpl;
 import com.erenaskin.banking_dashboard.mapper.AccountMapper;
 import com.erenaskin.banking_dashboard.repository.*;
 import com.erenaskin.banking_dashboard.util.IbanGenerator;
+import com.erenaskin.banking_dashboard.security.CurrentUserProvider;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.*;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.YearMonth;
 import java.util.*;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -27,12 +32,18 @@ class AccountServiceUnitTest {
     @Mock private TransactionRepository transactionRepository;
     @Mock private AccountMapper accountMapper;
     @Mock private IbanGenerator ibanGenerator;
+    @Mock private IbanResolver ibanResolver;
+    @Mock private CurrentUserProvider currentUserProvider;
+    @Mock private AccountMonthlyTotalRepository monthlyTotalRepository;
 
     private User testUser;
 
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
+        ReflectionTestUtils.setField(accountService, "defaultPageSize", 50);
+        ReflectionTestUtils.setField(accountService, "maxPageSize", 200);
+        ReflectionTestUtils.setField(accountService, "maxSummaryMonths", 120);
         testUser = new User();
         testUser.setEmail("user@example.com");
     }
@@ -41,7 +52,7 @@ class AccountServiceUnitTest {
     void createAccount_ShouldSaveWithIban() {
         AccountRequest request = new AccountRequest("TRY");
         Account account = new Account();
-        when(userRepository.findByEmail(any())).thenReturn(Optional.of(testUser));
+        when(currentUserProvider.currentUserId()).thenReturn(testUser.getId());
         when(ibanGenerator.generateIban()).thenReturn("TR123");
 
         accountService.createAccount(request);
@@ -56,8 +67,8 @@ class AccountServiceUnitTest {
         acc.setBalance(BigDecimal.TEN);
         acc.setCurrency(Currency.TRY);
 
-        when(userRepository.findByEmail(any())).thenReturn(Optional.of(testUser));
-        when(accountRepository.findByUser(testUser)).thenReturn(List.of(acc));
+        when(currentUserProvider.currentUserId()).thenReturn(testUser.getId());
+        when(accountRepository.findByUserId(testUser.getId())).thenReturn(List.of(acc));
         when(accountMapper.toResponse(acc)).thenReturn(new AccountResponse("TR123", BigDecimal.TEN, Currency.TRY));
 
         List<AccountResponse> result = accountService.getUserAccounts();
@@ -70,7 +81,7 @@ class AccountServiceUnitTest {
     void getCurrencyByIban_ShouldReturnCurrency() {
         Account acc = new Account();
         acc.setCurrency(Currency.USD);
-        when(accountRepository.findByIban("TR123")).thenReturn(Optional.of(acc));
+        when(ibanResolver.resolve("TR123")).thenReturn(Optional.of(acc));
 
         Currency result = accountService.getCurrencyByIban("TR123");
 
@@ -79,31 +90,59 @@ class AccountServiceUnitTest {
 
     @Test
     void getAccountDetails_ShouldReturnDetails() {
-        Account acc = new Account();
-        acc.setIban("TR123");
-        acc.setBalance(BigDecimal.valueOf(100));
-        acc.setCurrency(Currency.EUR);
-        when(accountRepository.findByIban("TR123")).thenReturn(Optional.of(acc));
-        when(transactionRepository.findBySenderIbanOrReceiverIban("TR123", "TR123")).thenReturn(List.of());
-        AccountDetailsResponse.builder()
-                .iban("TR123")
-                .currency("TRY")
-                .balance(BigDecimal.TEN)
-                .transactions(List.of())
-                .build();
-        AccountDetailsResponse result = accountService.getAccountDetails("TR123");
+        testUser.setId(1L);
+        when(currentUserProvider.currentUserId()).thenReturn(1L);
+        when(ibanResolver.resolveId("TR123")).thenReturn(Optional.of(5L));
+        when(accountRepository.findSummaryById(5L)).thenReturn(Optional.of(
+                new AccountSummary(5L, "TR123", Currency.EUR, BigDecimal.valueOf(100), 1L)));
+        when(transactionRepository.findByAccountBefore(eq(5L), any(), any(), any())).thenReturn(List.of());
+
+        AccountDetailsResponse result = accountService.getAccountDetails("TR123", null, null);
 
         assertEquals("TR123", result.iban());
         assertEquals("EUR", result.currency());
+        verify(accountRepository, never()).findById(any());
+    }
+
+    @Test
+    void getAccountDetails_ShouldThrow_WhenAccountOwnedByAnotherUser() {
+        when(currentUserProvider.currentUserId()).thenReturn(1L);
+        when(ibanResolver.resolveId("TR123")).thenReturn(Optional.of(5L));
+        when(accountRepository.findSummaryById(5L)).thenReturn(Optional.of(
+                new AccountSummary(5L, "TR123", Currency.EUR, BigDecimal.valueOf(100), 2L)));
+
+        assertThrows(SecurityException.class, () -> accountService.getAccountDetails("TR123", null, null));
+        verifyNoInteractions(transactionRepository);
     }
 
     @Test
     void createAccount_ShouldThrow_WhenUserNotFound() {
-        when(userRepository.findByEmail(any())).thenReturn(Optional.empty());
+        when(currentUserProvider.currentUserReference()).thenThrow(new IllegalStateException("User not found"));
 
         RuntimeException ex = assertThrows(RuntimeException.class,
                 () -> accountService.createAccount(new AccountRequest("TRY")));
 
         assertEquals("User not found", ex.getMessage());
     }
+
+    @Test
+    void getMonthlySummary_ShouldFillMissingMonthsWithZero() {
+        testUser.setId(1L);
+        Account acc = Account.builder().id(5L).iban("TR123").user(testUser).build();
+        LocalDate thisMonth = YearMonth.now().atDay(1);
+        when(currentUserProvider.currentUserId()).thenReturn(testUser.getId());
+        when(ibanResolver.resolve("TR123")).thenReturn(Optional.of(acc));
+        when(monthlyTotalRepository.findByAccountIdAndMonthGreaterThanEqualOrderByMonthDesc(eq(5L), any()))
+                .thenReturn(List.of(
+                        new AccountMonthlyTotal(5L, thisMonth, TransactionType.DEPOSIT, new BigDecimal("100"), BigDecimal.ZERO, 1),
+                        new AccountMonthlyTotal(5L, thisMonth, TransactionType.TRANSFER, BigDecimal.ZERO, new BigDecimal("40"), 2)));
+
+        List<MonthlySummaryResponse> result = accountService.getMonthlySummary("TR123", 3);
+
+        assertEquals(3, result.size());
+        assertEquals(new BigDecimal("100"), result.get(0).inflow());
+        assertEquals(new BigDecimal("40"), result.get(0).outflow());
+        assertEquals(3, result.get(0).transactionCount());
+        assertEquals(0, result.get(1).transactionCount());
+    }
 }
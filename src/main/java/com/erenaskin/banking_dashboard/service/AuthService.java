@@ -7,4 +7,5 @@ import com.erenaskin.banking_dashboard.dto.RegisterRequest;
 public interface AuthService {
     AuthResponse register(RegisterRequest request);
     AuthResponse login(LoginRequest request);
+    void logout(String token, boolean allSessions);
 }
@@ -5,9 +5,15 @@ import com.erenaskin.banking_dashboard.dto.LoginRequest;
 import com.erenaskin.banking_dashboard.dto.RegisterRequest;
 import com.erenaskin.banking_dashboard.entity.Role;
 import com.erenaskin.banking_dashboard.entity.User;
+import com.erenaskin.banking_dashboard.exception.TooManyRequestsException;
 import com.erenaskin.banking_dashboard.mapper.UserMapper;
 import com.erenaskin.banking_dashboard.repository.UserRepository;
+import com.erenaskin.banking_dashboard.security.AuthThrottle;
+import com.erenaskin.banking_dashboard.security.CurrentUserProvider;
 import com.erenaskin.banking_dashboard.security.JwtUtil;
+import com.erenaskin.banking_dashboard.security.PasswordHashingExecutor;
+import com.erenaskin.banking_dashboard.security.TokenRevocationRegistry;
+import com.erenaskin.banking_dashboard.security.VerifiedToken;
 import com.erenaskin.banking_dashboard.impl.AuthServiceImpl;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -16,7 +22,9 @@ import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
+import java.time.Instant;
 import java.util.Optional;
+import java.util.function.Supplier;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -27,6 +35,10 @@ class AuthServiceUnitTest {
     @Mock private UserMapper userMapper;
     @Mock private PasswordEncoder passwordEncoder;
     @Mock private JwtUtil jwtUtil;
+    @Mock private TokenRevocationRegistry revocationRegistry;
+    @Mock private PasswordHashingExecutor passwordHashingExecutor;
+    @Mock private AuthThrottle authThrottle;
+    @Mock private CurrentUserProvider currentUserProvider;
 
     @InjectMocks
     private AuthServiceImpl authService;
@@ -34,6 +46,8 @@ class AuthServiceUnitTest {
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
+        when(passwordHashingExecutor.execute(any())).thenAnswer(invocation -> ((Supplier<?>) invocation.getArgument(0)).get());
+        when(authThrottle.tryAcquireEmail(any())).thenReturn(true);
     }
 
     @Test
@@ -92,4 +106,53 @@ class AuthServiceUnitTest {
         RuntimeException ex = assertThrows(RuntimeException.class, () -> authService.register(request));
         assertEquals("Email already in use", ex.getMessage());
     }
+
+    @Test
+    void logout_ShouldRevokeTokenOnly_WhenSingleSession() {
+        VerifiedToken verified = new VerifiedToken("user@example.com", "USER", 7L, "jti-1", 0, Instant.now().plusSeconds(60));
+        when(jwtUtil.verify("jwt-token")).thenReturn(verified);
+
+        authService.logout("jwt-token", false);
+
+        verify(revocationRegistry).revoke(verified);
+        verify(revocationRegistry, never()).revokeAll(any());
+    }
+
+    @Test
+    void logout_ShouldRaiseUserEpoch_WhenAllSessions() {
+        VerifiedToken verified = new VerifiedToken("user@example.com", "USER", 7L, "jti-1", 0, Instant.now().plusSeconds(60));
+        when(jwtUtil.verify("jwt-token")).thenReturn(verified);
+
+        authService.logout("jwt-token", true);
+
+        verify(revocationRegistry).revoke(verified);
+        verify(revocationRegistry).revokeAll(7L);
+    }
+
+    @Test
+    void login_ShouldRehashPassword_WhenStrengthChanged() {
+        LoginRequest request = new LoginRequest("user@example.com", "correctpass");
+        User user = new User();
+        user.setPassword("oldHash");
+
+        when(userRepository.findByEmail(request.getEmail())).thenReturn(Optional.of(user));
+        when(passwordEncoder.matches("correctpass", "oldHash")).thenReturn(true);
+        when(passwordEncoder.upgradeEncoding("oldHash")).thenReturn(true);
+        when(passwordEncoder.encode("correctpass")).thenReturn("newHash");
+        when(jwtUtil.generateToken(user)).thenReturn("jwt-token");
+
+        authService.login(request);
+
+        assertEquals("newHash", user.getPassword());
+        verify(userRepository).save(user);
+    }
+
+    @Test
+    void login_ShouldRejectBeforeHashing_WhenEmailThrottled() {
+        LoginRequest request = new LoginRequest("user@example.com", "pass");
+        when(authThrottle.tryAcquireEmail("user@example.com")).thenReturn(false);
+
+        assertThrows(TooManyRequestsException.class, () -> authService.login(request));
+        verifyNoInteractions(passwordEncoder, userRepository);
+    }
 }
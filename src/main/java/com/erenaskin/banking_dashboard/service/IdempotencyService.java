@@ -0,0 +1,18 @@
+package com.erenaskin.banking_dashboard.service;
+
+import org.springframework.http.ResponseEntity;
+
+import java.util.function.Supplier;
+
+public interface IdempotencyService {
+
+    String HEADER = "Idempotency-Key";
+
+    /**
+     * Runs {@code action} once per (user, key). Repeats with the same key replay the stored
+     * response; concurrent repeats wait for the first execution. A {@code null} key runs the
+     * action without deduplication. A key is given back only when the action was rejected
+     * before writing anything; after a timeout it stays taken until its lease expires.
+     */
+    ResponseEntity<?> execute(String key, String operation, Object request, Supplier<ResponseEntity<?>> action);
+}
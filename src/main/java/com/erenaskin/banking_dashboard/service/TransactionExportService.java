@@ -0,0 +1,10 @@
+package com.erenaskin.banking_dashboard.service;
+
+import com.erenaskin.banking_dashboard.dto.ExportFormat;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.LocalDateTime;
+
+public interface TransactionExportService {
+    StreamingResponseBody export(String iban, ExportFormat format, LocalDateTime from, LocalDateTime to);
+}
@@ -1,11 +1,16 @@
 package com.erenaskin.banking_dashboard.service;
 
+import com.erenaskin.banking_dashboard.dto.BatchTransferResult;
+import com.erenaskin.banking_dashboard.dto.CursorPage;
 import com.erenaskin.banking_dashboard.dto.TransactionResponse;
 import com.erenaskin.banking_dashboard.dto.TransferRequest;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 
 public interface TransactionService {
     void transfer(TransferRequest request);
-    List<TransactionResponse> getHistory(String iban);
+    List<BatchTransferResult> transferBatch(InputStream body) throws IOException;
+    CursorPage<TransactionResponse> getHistory(String iban, String cursor, Integer size);
 }
@@ -58,7 +58,7 @@ class TransactionServiceIntegrationTest {
 
         transactionService.transfer(deposit);
 
-        List<TransactionResponse> history = transactionService.getHistory(iban);
+        List<TransactionResponse> history = transactionService.getHistory(iban, null, null).items();
         assertEquals(1, history.size());
         assertEquals(new BigDecimal("1500"), history.get(0).getAmount());
     }
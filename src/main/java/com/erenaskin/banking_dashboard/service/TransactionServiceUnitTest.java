@@ -1,15 +1,18 @@
 package com.erenaskin.banking_dashboard.service;
 
+import com.erenaskin.banking_dashboard.cache.IbanResolver;
+import com.erenaskin.banking_dashboard.dto.CursorPage;
 import com.erenaskin.banking_dashboard.dto.TransactionResponse;
+import com.erenaskin.banking_dashboard.dto.TransactionView;
 import com.erenaskin.banking_dashboard.dto.TransferRequest;
 import com.erenaskin.banking_dashboard.entity.Account;
-import com.erenaskin.banking_dashboard.entity.Transaction;
 import com.erenaskin.banking_dashboard.entity.User;
-import com.erenaskin.banking_dashboard.mapper.TransactionMapper;
+import com.erenaskin.banking_dashboard.ledger.TransferPipeline;
 import com.erenaskin.banking_dashboard.repository.AccountRepository;
 import com.erenaskin.banking_dashboard.repository.TransactionRepository;
 import com.erenaskin.banking_dashboard.repository.UserRepository;
 import com.erenaskin.banking_dashboard.impl.TransactionServiceImpl;
+import com.erenaskin.banking_dashboard.security.CurrentUserProvider;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.*;
@@ -17,8 +20,10 @@ import org.mockito.*;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -30,7 +35,9 @@ class TransactionServiceUnitTest {
     @Mock private AccountRepository accountRepository;
     @Mock private TransactionRepository transactionRepository;
     @Mock private UserRepository userRepository;
-    @Mock private TransactionMapper transactionMapper;
+    @Mock private IbanResolver ibanResolver;
+    @Mock private CurrentUserProvider currentUserProvider;
+    @Mock private TransferPipeline transferPipeline;
 
     @InjectMocks
     private TransactionServiceImpl transactionService;
@@ -38,6 +45,8 @@ class TransactionServiceUnitTest {
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
+        ReflectionTestUtils.setField(transactionService, "defaultPageSize", 50);
+        ReflectionTestUtils.setField(transactionService, "maxPageSize", 200);
 
         Authentication auth = mock(Authentication.class);
         when(auth.getName()).thenReturn("user@example.com");
@@ -50,7 +59,7 @@ class TransactionServiceUnitTest {
     void transfer_ShouldThrow_WhenUserNotFound() {
         TransferRequest request = new TransferRequest("TRANSFER", new BigDecimal("100"), "TR123", "TR456");
 
-        when(userRepository.findByEmail("user@example.com")).thenReturn(Optional.empty());
+        when(currentUserProvider.currentUserId()).thenThrow(new IllegalStateException("User not found"));
 
         RuntimeException ex = assertThrows(RuntimeException.class, () -> transactionService.transfer(request));
         assertEquals("User not found", ex.getMessage());
@@ -61,8 +70,10 @@ class TransactionServiceUnitTest {
         TransferRequest request = new TransferRequest("TRANSFER", new BigDecimal("100"), "TR123", "TR456");
         User user = new User();
 
-        when(userRepository.findByEmail("user@example.com")).thenReturn(Optional.of(user));
-        when(accountRepository.findByUser(user)).thenReturn(List.of(Account.builder().iban("TR000").build()));
+        when(currentUserProvider.currentUserId()).thenReturn(user.getId());
+        when(ibanResolver.resolve("TR456")).thenReturn(Optional.of(
+                Account.builder().iban("TR456").user(User.builder().id(2L).build()).build()
+        ));
 
         RuntimeException ex = assertThrows(RuntimeException.class, () -> transactionService.transfer(request));
         assertEquals("Sender IBAN not found or not owned by user", ex.getMessage());
@@ -72,11 +83,11 @@ class TransactionServiceUnitTest {
     void transfer_ShouldThrow_WhenReceiverIbanNotFound() {
         TransferRequest request = new TransferRequest("TRANSFER", new BigDecimal("100"), "TR123", "TR456");
         User user = new User();
-        Account sender = Account.builder().iban("TR123").balance(new BigDecimal("200")).build();
+        Account sender = Account.builder().iban("TR456").balance(new BigDecimal("200")).user(user).build();
 
-        when(userRepository.findByEmail("user@example.com")).thenReturn(Optional.of(user));
-        when(accountRepository.findByUser(user)).thenReturn(List.of(sender));
-        when(accountRepository.findAll()).thenReturn(List.of());
+        when(currentUserProvider.currentUserId()).thenReturn(user.getId());
+        when(ibanResolver.resolve("TR456")).thenReturn(Optional.of(sender));
+        when(ibanResolver.resolve("TR123")).thenReturn(Optional.empty());
 
         RuntimeException ex = assertThrows(RuntimeException.class, () -> transactionService.transfer(request));
         assertEquals("Receiver IBAN not found", ex.getMessage());
@@ -86,30 +97,28 @@ class TransactionServiceUnitTest {
     void transfer_ShouldThrow_WhenInsufficientBalance() {
         TransferRequest request = new TransferRequest("TRANSFER", new BigDecimal("300"), "TR123", "TR456");
         User user = new User();
-        Account sender = Account.builder().iban("TR123").balance(new BigDecimal("200")).build();
-        Account receiver = Account.builder().iban("TR456").balance(new BigDecimal("100")).build();
+        Account sender = Account.builder().iban("TR456").balance(new BigDecimal("200")).user(user).build();
+        Account receiver = Account.builder().iban("TR123").balance(new BigDecimal("100")).build();
 
-        when(userRepository.findByEmail("user@example.com")).thenReturn(Optional.of(user));
-        when(accountRepository.findByUser(user)).thenReturn(List.of(sender));
-        when(accountRepository.findAll()).thenReturn(List.of(receiver));
+        when(currentUserProvider.currentUserId()).thenReturn(user.getId());
+        when(ibanResolver.resolve("TR456")).thenReturn(Optional.of(sender));
+        when(ibanResolver.resolve("TR123")).thenReturn(Optional.of(receiver));
 
         RuntimeException ex = assertThrows(RuntimeException.class, () -> transactionService.transfer(request));
         assertEquals("Insufficient balance", ex.getMessage());
     }
 
     @Test
-    void getHistory_ShouldReturnMappedTransactions() {
+    void getHistory_ShouldReturnProjectedTransactions() {
         String iban = "TR123";
-        Transaction tx = Transaction.builder().id(1L).amount(new BigDecimal("100")).senderIban(iban).build();
+        TransactionView tx = new TransactionView(1L, iban, null, new BigDecimal("100"), null,
+                LocalDateTime.of(2025, 7, 9, 12, 0), null, null);
 
-        when(transactionRepository.findBySenderIbanOrReceiverIban(iban, iban)).thenReturn(List.of(tx));
-        when(transactionMapper.toResponse(tx)).thenReturn(
-                new TransactionResponse("TR123", "TR456", new BigDecimal("100"), null)
-        );
+        when(transactionRepository.findSentBefore(eq(iban), any(), any(), any())).thenReturn(List.of(tx));
 
-        List<TransactionResponse> responses = transactionService.getHistory(iban);
+        CursorPage<TransactionResponse> responses = transactionService.getHistory(iban, null, 20);
 
-        assertEquals(1, responses.size());
-        verify(transactionMapper).toResponse(tx);
+        assertEquals(1, responses.items().size());
+        assertEquals(new BigDecimal("100"), responses.items().get(0).getAmount());
     }
 }
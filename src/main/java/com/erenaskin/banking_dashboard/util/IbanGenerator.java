@@ -1,13 +1,118 @@
-// src/main/java/com/erenaskin/banking_dashboard/util/IbanGenerator.java
 package com.erenaskin.banking_dashboard.util;
 
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Component;
 
-import java.util.UUID;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
 
+/**
+ * Allocates Turkish IBANs ({@code TRkk 00061 0 nnnnnnnnnnnnnnnn}) from a database sequence.
+ * Account numbers are reserved in blocks with a single query, so allocating an IBAN is a local
+ * operation until the block runs out, and distinct nodes can never hand out the same number.
+ * Check digits follow ISO 13616 (mod 97).
+ */
 @Component
+@RequiredArgsConstructor
+@Slf4j
 public class IbanGenerator {
+
+    static final String COUNTRY_CODE = "TR";
+    static final String BANK_CODE = "00061";
+    static final String RESERVED = "0";
+    static final int ACCOUNT_DIGITS = 16;
+
+    private static final String SEQUENCE = "iban_account_seq";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${iban.block-size:1000}")
+    private int blockSize;
+
+    // A lock rather than synchronized: the holder may be querying the sequence, and a virtual
+    // thread blocking on I/O inside synchronized pins its carrier.
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private long[] block = new long[0];
+    private int next;
+
+    @PostConstruct
+    public void init() {
+        jdbcTemplate.execute("create sequence if not exists " + SEQUENCE + " start with 1 increment by 1 cache 1");
+    }
+
     public String generateIban() {
-        return "TR" + UUID.randomUUID().toString().substring(0, 16).replace("-", "").toUpperCase();
+        return format(nextAccountNumber());
+    }
+
+    public List<String> generateIbans(int count) {
+        List<String> ibans = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            ibans.add(generateIban());
+        }
+        return ibans;
+    }
+
+    private long nextAccountNumber() {
+        lock.lock();
+        try {
+            if (next == block.length) {
+                block = reserveBlock();
+                next = 0;
+            }
+            return block[next++];
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private long[] reserveBlock() {
+        List<Long> values = jdbcTemplate.queryForList(
+                "select nextval('" + SEQUENCE + "') from generate_series(1, ?)", Long.class, blockSize);
+        log.debug("Reserved {} account numbers starting at {}", values.size(), values.isEmpty() ? null : values.get(0));
+        return values.stream().mapToLong(Long::longValue).toArray();
+    }
+
+    static String format(long accountNumber) {
+        String account = String.format("%0" + ACCOUNT_DIGITS + "d", accountNumber);
+        if (account.length() != ACCOUNT_DIGITS) {
+            throw new IllegalStateException("Account number space exhausted: " + accountNumber);
+        }
+        String bban = BANK_CODE + RESERVED + account;
+        return COUNTRY_CODE + checkDigits(COUNTRY_CODE, bban) + bban;
+    }
+
+    /**
+     * ISO 13616 check digits: move the country code and "00" behind the BBAN, map letters to
+     * 10..35 and take 98 minus the remainder mod 97.
+     */
+    static String checkDigits(String countryCode, String bban) {
+        int remainder = mod97(bban + countryCode + "00");
+        int check = 98 - remainder;
+        return check < 10 ? "0" + check : Integer.toString(check);
+    }
+
+    static boolean isValid(String iban) {
+        if (iban == null || iban.length() < 5) {
+            return false;
+        }
+        return mod97(iban.substring(4) + iban.substring(0, 4)) == 1;
+    }
+
+    private static int mod97(String value) {
+        int remainder = 0;
+        for (int i = 0; i < value.length(); i++) {
+            int digit = Character.digit(value.charAt(i), 36);
+            if (digit < 0) {
+                throw new IllegalArgumentException("Invalid IBAN character: " + value.charAt(i));
+            }
+            remainder = digit < 10 ? (remainder * 10 + digit) % 97 : (remainder * 100 + digit) % 97;
+        }
+        return remainder;
     }
 }
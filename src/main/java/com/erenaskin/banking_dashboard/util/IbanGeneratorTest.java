@@ -0,0 +1,52 @@
+package com.erenaskin.banking_dashboard.util;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class IbanGeneratorTest {
+
+    @Test
+    void checkDigits_ShouldMatchPublishedExample() {
+        assertEquals("33", IbanGenerator.checkDigits("TR", "0006100519786457841326"));
+        assertTrue(IbanGenerator.isValid("TR330006100519786457841326"));
+    }
+
+    @Test
+    void format_ShouldProduceValidTurkishIban() {
+        String iban = IbanGenerator.format(42);
+
+        assertEquals(26, iban.length());
+        assertTrue(iban.startsWith("TR"));
+        assertTrue(iban.endsWith("000610" + "0000000000000042"));
+        assertTrue(IbanGenerator.isValid(iban));
+    }
+
+    @Test
+    void generateIbans_ShouldReserveOneBlockPerBlockSize() {
+        JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+        long[] start = {1};
+        when(jdbcTemplate.queryForList(anyString(), eq(Long.class), eq(100))).thenAnswer(invocation -> {
+            List<Long> values = LongStream.range(start[0], start[0] + 100).boxed().toList();
+            start[0] += 100;
+            return values;
+        });
+        IbanGenerator generator = new IbanGenerator(jdbcTemplate);
+        ReflectionTestUtils.setField(generator, "blockSize", 100);
+
+        List<String> ibans = generator.generateIbans(250);
+
+        Set<String> unique = new HashSet<>(ibans);
+        assertEquals(250, unique.size());
+        assertTrue(ibans.stream().allMatch(IbanGenerator::isValid));
+        verify(jdbcTemplate, times(3)).queryForList(anyString(), eq(Long.class), eq(100));
+    }
+}